@@ -0,0 +1,74 @@
+package com.example.carins.benchmark;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory fixtures shaped like production rows: owners with a couple of cars, yearly
+ * policies from a handful of providers and claims scattered over the policy years.
+ */
+final class BenchmarkData {
+
+    private static final String[] PROVIDERS = {"Allianz", "Groupama", "Generali", "Omniasig", "Asirom"};
+    private static final String[] MAKES = {"Dacia", "Volkswagen", "Skoda", "Toyota", "Ford"};
+
+    private BenchmarkData() {
+    }
+
+    static Owner owner(long id) {
+        Owner owner = new Owner("Owner " + id, "owner" + id + "@example.com");
+        owner.setId(id);
+        return owner;
+    }
+
+    static List<Car> cars(int count) {
+        Random random = new Random(42);
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Car car = new Car(String.format("VIN%014d", i), MAKES[random.nextInt(MAKES.length)], "Model " + i % 7,
+                    2005 + random.nextInt(20), owner(i / 2 + 1));
+            car.setId((long) i + 1);
+            cars.add(car);
+        }
+        return cars;
+    }
+
+    static List<InsurancePolicy> policies(Car car, int count) {
+        Random random = new Random(7);
+        List<InsurancePolicy> policies = new ArrayList<>(count);
+        LocalDate start = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < count; i++) {
+            InsurancePolicy policy = new InsurancePolicy(car, PROVIDERS[random.nextInt(PROVIDERS.length)],
+                    start, start.plusYears(1).minusDays(1));
+            policy.setId((long) i + 1);
+            policies.add(policy);
+            start = start.plusMonths(1 + random.nextInt(12));
+        }
+        // repository order is not chronological, which is what the history sort has to fix up
+        Collections.shuffle(policies, random);
+        return policies;
+    }
+
+    static List<Claim> claims(Car car, int count) {
+        Random random = new Random(11);
+        List<Claim> claims = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate claimDate = LocalDate.of(2000, 1, 1).plusDays(random.nextInt(365 * 25));
+            Claim claim = new Claim(car, claimDate, "Damage report #" + i,
+                    BigDecimal.valueOf(50 + random.nextInt(20_000), 2));
+            claim.setId((long) i + 1);
+            claim.setCreatedAt(claimDate.atTime(random.nextInt(24), random.nextInt(60)));
+            claims.add(claim);
+        }
+        return claims;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.carins.benchmark;
+
+import com.example.carins.CarInsuranceApplication;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows per second for bulk inserts of owners and cars through the Spring Data repositories against
+ * a Testcontainers Postgres. {@code batchSize=0} disables JDBC batching, which is how inserts behaved
+ * with IDENTITY ids (one round trip per row); {@code batchSize=50} is the configured setting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int OWNERS_PER_INVOCATION = 500;
+    private static final int ROWS_PER_INVOCATION = OWNERS_PER_INVOCATION * 2;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private OwnerRepository ownerRepository;
+    private CarRepository carRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(CarInsuranceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "logging.level.com.example.carins=WARN",
+                        "logging.level.org.springframework.security=WARN")
+                .run();
+
+        ownerRepository = context.getBean(OwnerRepository.class);
+        carRepository = context.getBean(CarRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE claim, insurancepolicy, car, owner CASCADE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public int insertOwnersAndCars() {
+        return transactionTemplate.execute(status -> {
+            List<Owner> owners = new ArrayList<>(OWNERS_PER_INVOCATION);
+            List<Car> cars = new ArrayList<>(OWNERS_PER_INVOCATION);
+            for (int i = 0; i < OWNERS_PER_INVOCATION; i++) {
+                long n = sequence.incrementAndGet();
+                Owner owner = new Owner("Owner " + n, "owner" + n + "@example.com");
+                owners.add(owner);
+                cars.add(new Car("VIN" + n, "Dacia", "Logan", 2020, owner));
+            }
+            ownerRepository.saveAll(owners);
+            carRepository.saveAll(cars);
+            return owners.size() + cars.size();
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.carins.benchmark;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.service.CarHistoryAssembler;
+import com.example.carins.web.dto.CarHistoryDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event assembly and sort behind {@code GET /api/cars/{carId}/history}, without the database. {@code events}
+ * is roughly the size of the resulting history: a typical car has tens of events, a fleet car with
+ * monthly policies and frequent claims reaches the thousands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarHistoryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int events;
+
+    private Car car;
+    private List<InsurancePolicy> policies;
+    private List<Claim> claims;
+
+    @Setup
+    public void setUp() {
+        car = BenchmarkData.cars(1).get(0);
+        // two events per policy, one per claim
+        policies = BenchmarkData.policies(car, events / 4);
+        claims = BenchmarkData.claims(car, events - 2 * (events / 4));
+    }
+
+    @Benchmark
+    public CarHistoryDto assembleHistory() {
+        return CarHistoryAssembler.assemble(car, policies, claims);
+    }
+}
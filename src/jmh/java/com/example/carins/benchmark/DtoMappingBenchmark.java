@@ -0,0 +1,41 @@
+package com.example.carins.benchmark;
+
+import com.example.carins.model.Car;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.OwnerDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping for list endpoints ({@code GET /api/cars}, {@code GET /api/owners}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int rows;
+
+    private List<Car> cars;
+
+    @Setup
+    public void setUp() {
+        cars = BenchmarkData.cars(rows);
+    }
+
+    @Benchmark
+    public List<CarDto> mapCars() {
+        return cars.stream().map(CarDto::from).toList();
+    }
+
+    @Benchmark
+    public List<OwnerDto> mapOwners() {
+        return cars.stream().map(Car::getOwner).map(OwnerDto::from).toList();
+    }
+}
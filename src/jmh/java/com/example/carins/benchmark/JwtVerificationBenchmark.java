@@ -0,0 +1,73 @@
+package com.example.carins.benchmark;
+
+import com.example.carins.config.JwtUtil;
+import com.example.carins.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares token verification through {@link JwtUtil} with the verified-token cache disabled
+ * (every call checks the HMAC signature and parses the payload) and enabled (repeat calls with
+ * the same cookie are served from the cache), plus token issuance as done on every login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey12345678901234567890123456789012345678901234567890";
+
+    private JwtUtil coldJwtUtil;
+    private JwtUtil warmJwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        coldJwtUtil = jwtUtil(false);
+        warmJwtUtil = jwtUtil(true);
+
+        user = new User("benchmark", "password", "benchmark@example.com", User.Role.USER);
+        token = warmJwtUtil.generateToken(user);
+        warmJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return coldJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Boolean validateCold() {
+        return coldJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateWarm() {
+        return warmJwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractUsernameCold() {
+        return coldJwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameWarm() {
+        return warmJwtUtil.extractUsername(token);
+    }
+
+    static JwtUtil jwtUtil(boolean cacheEnabled) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 10_000);
+        return jwtUtil;
+    }
+}
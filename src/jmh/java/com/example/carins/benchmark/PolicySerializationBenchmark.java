@@ -0,0 +1,61 @@
+package com.example.carins.benchmark;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.web.dto.InsurancePolicyDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of policy lists as entities (nested car and owner, as {@code /api/policies}
+ * returns them) versus flat {@link InsurancePolicyDto}s, with and without the mapping step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PolicySerializationBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int policies;
+
+    private ObjectMapper objectMapper;
+    private List<InsurancePolicy> entities;
+    private List<InsurancePolicyDto> dtos;
+
+    @Setup
+    public void setUp() {
+        // same defaults Spring Boot applies (JavaTimeModule, ISO dates)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Car car = BenchmarkData.cars(1).get(0);
+        entities = BenchmarkData.policies(car, policies);
+        dtos = entities.stream().map(PolicySerializationBenchmark::toDto).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] serializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entities.stream().map(PolicySerializationBenchmark::toDto).toList());
+    }
+
+    private static InsurancePolicyDto toDto(InsurancePolicy policy) {
+        return new InsurancePolicyDto(policy.getId(), policy.getCar().getId(), policy.getProvider(),
+                policy.getStartDate(), policy.getEndDate());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.carins.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput of a platform thread pool sized like Tomcat's default (200 threads) versus a
+ * thread per request on virtual threads, both sharing one Hikari pool. Each simulated request blocks
+ * for {@code appLatencyMillis} outside the database (downstream calls, slow clients) and then holds a
+ * connection for {@code dbLatencyMillis} to stand in for a slow query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final int REQUESTS = 1_000;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"20"})
+    private int poolSize;
+
+    @Param({"0", "20"})
+    private int appLatencyMillis;
+
+    @Param({"5"})
+    private int dbLatencyMillis;
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:vtbench;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(30_000);
+        dataSource = new HikariDataSource(config);
+
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public long handleRequests() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(executor.submit(this::handleRequest));
+        }
+
+        long total = 0;
+        for (Future<Integer> response : responses) {
+            total += response.get();
+        }
+        return total;
+    }
+
+    private int handleRequest() throws SQLException, InterruptedException {
+        if (appLatencyMillis > 0) {
+            Thread.sleep(appLatencyMillis);
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+            Thread.sleep(dbLatencyMillis);
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.carins.loadtest;
+
+import com.example.carins.loadtest.LoadTestSettings.Route;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load: {@code concurrency} virtual users, each on its own virtual thread with its own
+ * login, issue requests back to back with routes drawn from the weighted mix. Latencies recorded after the
+ * warmup go into one HdrHistogram per route.
+ */
+class LoadDriver {
+
+    private static final String JWT_COOKIE = "jwt-token";
+    private static final long MAX_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final LoadTestSettings settings;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+    private final Route[] weightedRoutes;
+
+    LoadDriver(LoadTestSettings settings, String baseUrl) {
+        this.settings = settings;
+        this.baseUri = URI.create(baseUrl);
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<Route> routes = new ArrayList<>();
+        settings.mix().forEach((route, weight) -> {
+            stats.put(route, new RouteStats());
+            for (int i = 0; i < weight; i++) {
+                routes.add(route);
+            }
+        });
+        this.weightedRoutes = routes.toArray(Route[]::new);
+    }
+
+    void registerUsers() throws IOException, InterruptedException {
+        for (int i = 0; i < settings.users(); i++) {
+            HttpResponse<Void> response = send(post("/api/auth/register",
+                    "{\"username\":\"" + username(i) + "\",\"password\":\"" + password(i)
+                            + "\",\"email\":\"" + username(i) + "@loadtest.example\"}", null));
+            if (response.statusCode() != 201 && response.statusCode() != 409) {
+                throw new IllegalStateException("Registering " + username(i) + " failed with " + response.statusCode());
+            }
+        }
+    }
+
+    Map<Route, RouteStats> run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                int user = i % settings.users();
+                SplittableRandom random = new SplittableRandom(settings.seed() + i);
+                virtualUsers.submit(() -> {
+                    runVirtualUser(user, random, warmupEnd, end);
+                    return null;
+                });
+            }
+        }
+        return stats;
+    }
+
+    private void runVirtualUser(int user, SplittableRandom random, long warmupEnd, long end)
+            throws IOException, InterruptedException {
+        String cookie = login(user).orElseThrow(() -> new IllegalStateException("Login failed for " + username(user)));
+
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Route route = weightedRoutes[random.nextInt(weightedRoutes.length)];
+            HttpRequest request = request(route, user, cookie, random);
+
+            boolean ok;
+            try {
+                HttpResponse<Void> response = send(request);
+                ok = response.statusCode() < 400 || response.statusCode() == 404;
+            } catch (IOException e) {
+                ok = false;
+            }
+            long latency = System.nanoTime() - now;
+            if (now >= warmupEnd) {
+                stats.get(route).record(latency, ok);
+            }
+        }
+    }
+
+    private HttpRequest request(Route route, int user, String cookie, SplittableRandom random) {
+        long carId = 1 + random.nextLong(Math.max(1, settings.cars()));
+        return switch (route) {
+            case CARS -> get("/api/cars", cookie);
+            case INSURANCE_VALID -> get("/api/cars/" + carId + "/insurance-valid?date="
+                    + LocalDate.of(2015, 1, 1).plusDays(random.nextInt(365 * 15)), cookie);
+            case HISTORY -> get("/api/cars/" + carId + "/history", cookie);
+            case CLAIMS -> get("/api/cars/" + carId + "/claims", cookie);
+            case LOGIN -> post("/api/auth/login", loginBody(user), null);
+        };
+    }
+
+    private Optional<String> login(int user) throws IOException, InterruptedException {
+        HttpResponse<Void> response = send(post("/api/auth/login", loginBody(user), null));
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(header -> header.startsWith(JWT_COOKIE + "="))
+                .map(header -> header.substring(0, header.indexOf(';') > 0 ? header.indexOf(';') : header.length()))
+                .findFirst();
+    }
+
+    private HttpRequest get(String path, String cookie) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Cookie", cookie)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json, String cookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (cookie != null) {
+            builder.header("Cookie", cookie);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static String loginBody(int user) {
+        return "{\"username\":\"" + username(user) + "\",\"password\":\"" + password(user) + "\"}";
+    }
+
+    private static String username(int user) {
+        return "loadtest" + user;
+    }
+
+    private static String password(int user) {
+        return "loadtest-password-" + user;
+    }
+
+    static class RouteStats {
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, boolean ok) {
+            latencies.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+
+        Histogram latencies() {
+            return latencies;
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.carins.loadtest;
+
+import com.example.carins.CarInsuranceApplication;
+import com.example.carins.loadtest.LoadDriver.RouteStats;
+import com.example.carins.loadtest.LoadTestSettings.Route;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Map;
+
+/**
+ * End-to-end load test. By default starts Postgres in a container, starts the app on a random port against
+ * it, generates the synthetic data set, registers the load test users and replays the configured route mix.
+ * With {@code -Dloadtest.baseUrl} it drives an already running app instead (and only generates data when
+ * {@code -Dloadtest.jdbcUrl} is also given).
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dloadtest.cars=1000000 -Dloadtest.policies=5000000 -Dloadtest.claims=20000000
+ * </pre>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        PostgreSQLContainer<?> postgres = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            String baseUrl = settings.baseUrl();
+            String jdbcUrl = settings.jdbcUrl();
+            String jdbcUsername = settings.jdbcUsername();
+            String jdbcPassword = settings.jdbcPassword();
+
+            if (baseUrl.isBlank()) {
+                postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                        .withDatabaseName("carinsurance")
+                        .withCommand("postgres", "-c", "max_connections=200", "-c", "shared_buffers=512MB");
+                postgres.start();
+                jdbcUrl = postgres.getJdbcUrl();
+                jdbcUsername = postgres.getUsername();
+                jdbcPassword = postgres.getPassword();
+
+                app = new SpringApplicationBuilder(CarInsuranceApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.datasource.url=" + jdbcUrl + "&reWriteBatchedInserts=true",
+                                "spring.datasource.username=" + jdbcUsername,
+                                "spring.datasource.password=" + jdbcPassword,
+                                "logging.level.root=WARN",
+                                "logging.level.com.example.carins=WARN",
+                                "logging.level.org.springframework.security=WARN")
+                        .run();
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            }
+
+            if (!jdbcUrl.isBlank()) {
+                new SyntheticDataGenerator(jdbcUrl, jdbcUsername, jdbcPassword, settings.seed())
+                        .generate(settings.owners(), settings.cars(), settings.policies(), settings.claims());
+            }
+
+            LoadDriver driver = new LoadDriver(settings, baseUrl);
+            driver.registerUsers();
+            System.out.printf("Driving %s with %d virtual users: %d s warmup, %d s measured%n",
+                    baseUrl, settings.concurrency(), settings.warmup().toSeconds(), settings.duration().toSeconds());
+            report(driver.run(), settings.duration().toNanos() / 1e9);
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static void report(Map<Route, RouteStats> stats, double seconds) {
+        System.out.printf("%n%-42s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "route", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        stats.forEach((route, routeStats) -> {
+            Histogram h = routeStats.latencies();
+            System.out.printf("%-42s %10d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    route.label(), h.getTotalCount(), routeStats.errors(), h.getTotalCount() / seconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.carins.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code -Dloadtest.*} system properties.
+ *
+ * @param baseUrl     app to test; when blank the app is started against a Testcontainers Postgres
+ * @param jdbcUrl     database to populate when testing an external app; blank skips data generation
+ * @param mix         relative weight per route, e.g. {@code cars=5,insurance-valid=40,history=25,claims=20,login=10}
+ */
+record LoadTestSettings(
+        String baseUrl,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        long owners,
+        long cars,
+        long policies,
+        long claims,
+        int users,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Route, Integer> mix,
+        long seed
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.baseUrl", ""),
+                System.getProperty("loadtest.jdbcUrl", ""),
+                System.getProperty("loadtest.jdbcUsername", "carins_user"),
+                System.getProperty("loadtest.jdbcPassword", "carins_password"),
+                Long.getLong("loadtest.owners", 50_000),
+                Long.getLong("loadtest.cars", 100_000),
+                Long.getLong("loadtest.policies", 500_000),
+                Long.getLong("loadtest.claims", 2_000_000),
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 15)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60)),
+                parseMix(System.getProperty("loadtest.mix", "cars=5,insurance-valid=40,history=25,claims=20,login=10")),
+                Long.getLong("loadtest.seed", 42));
+    }
+
+    static Map<Route, Integer> parseMix(String mix) {
+        Map<Route, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected route=weight");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Route.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Load mix must contain at least one route with a positive weight");
+        }
+        return weights;
+    }
+
+    /**
+     * Routes the driver can replay, keyed by the names used in {@code loadtest.mix}.
+     */
+    enum Route {
+        CARS("cars", "GET /api/cars"),
+        INSURANCE_VALID("insurance-valid", "GET /api/cars/{carId}/insurance-valid"),
+        HISTORY("history", "GET /api/cars/{carId}/history"),
+        CLAIMS("claims", "GET /api/cars/{carId}/claims"),
+        LOGIN("login", "POST /api/auth/login");
+
+        private final String key;
+        private final String label;
+
+        Route(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        String label() {
+            return label;
+        }
+
+        static Route fromKey(String key) {
+            for (Route route : values()) {
+                if (route.key.equals(key)) {
+                    return route;
+                }
+            }
+            throw new IllegalArgumentException("Unknown route '" + key + "' in load mix");
+        }
+    }
+}
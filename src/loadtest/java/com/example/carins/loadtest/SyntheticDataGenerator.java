@@ -0,0 +1,112 @@
+package com.example.carins.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Fills {@code owner}, {@code car}, {@code insurancepolicy} and {@code claim} with synthetic rows through
+ * Postgres {@code COPY}. Ids are assigned densely from 1 (so the load driver can pick random existing ids)
+ * and the id sequences are moved past them afterwards. Output is deterministic for a given seed.
+ */
+class SyntheticDataGenerator {
+
+    private static final String[] PROVIDERS = {"Allianz", "Groupama", "Generali", "Omniasig", "Asirom", "Uniqa"};
+    private static final String[] MAKES = {"Dacia", "Volkswagen", "Skoda", "Toyota", "Ford", "Renault", "BMW"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final int DAYS = 365 * 15;
+    private static final int FLUSH_BYTES = 1 << 16;
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final long seed;
+
+    SyntheticDataGenerator(String jdbcUrl, String username, String password, long seed) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.seed = seed;
+    }
+
+    void generate(long owners, long cars, long policies, long claims) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE claim, insurancepolicy, car, owner CASCADE");
+            }
+            PGConnection pg = connection.unwrap(PGConnection.class);
+            SplittableRandom random = new SplittableRandom(seed);
+
+            copy(pg, "owner", "COPY owner (id, name, email) FROM STDIN WITH (FORMAT csv)", owners,
+                    id -> id + ",Owner " + id + ",owner" + id + "@loadtest.example\n");
+
+            copy(pg, "car", "COPY car (id, vin, make, model, year_of_manufacture, owner_id) FROM STDIN WITH (FORMAT csv)", cars,
+                    id -> id + "," + String.format("LT%015d", id) + "," + MAKES[random.nextInt(MAKES.length)]
+                            + ",Model " + random.nextInt(20) + "," + (2000 + random.nextInt(25))
+                            + "," + (1 + random.nextLong(owners)) + "\n");
+
+            copy(pg, "insurancepolicy", "COPY insurancepolicy (id, car_id, provider, start_date, end_date) FROM STDIN WITH (FORMAT csv)", policies,
+                    id -> {
+                        LocalDate start = FIRST_DAY.plusDays(random.nextInt(DAYS));
+                        return id + "," + (1 + random.nextLong(cars)) + "," + PROVIDERS[random.nextInt(PROVIDERS.length)]
+                                + "," + start + "," + start.plusYears(1).minusDays(1) + "\n";
+                    });
+
+            copy(pg, "claim", "COPY claim (id, car_id, claim_date, description, amount, created_at) FROM STDIN WITH (FORMAT csv)", claims,
+                    id -> {
+                        LocalDate claimDate = FIRST_DAY.plusDays(random.nextInt(DAYS));
+                        return id + "," + (1 + random.nextLong(cars)) + "," + claimDate + ",Synthetic claim " + id
+                                + "," + (50 + random.nextInt(20_000)) + "." + random.nextInt(10) + "0"
+                                + "," + claimDate.atTime(random.nextInt(24), random.nextInt(60)) + "\n";
+                    });
+
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[]{"owner", "car", "insurancepolicy", "claim"}) {
+                    statement.execute("SELECT setval('" + table + "_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM "
+                            + table + ") + 1, 1000))");
+                }
+                statement.execute("ANALYZE owner, car, insurancepolicy, claim");
+            }
+        }
+    }
+
+    private static void copy(PGConnection connection, String table, String sql, long rows, RowWriter writer)
+            throws SQLException {
+        long start = System.nanoTime();
+        CopyIn copyIn = connection.getCopyAPI().copyIn(sql);
+        try {
+            StringBuilder buffer = new StringBuilder(FLUSH_BYTES * 2);
+            for (long id = 1; id <= rows; id++) {
+                buffer.append(writer.row(id));
+                if (buffer.length() >= FLUSH_BYTES) {
+                    write(copyIn, buffer);
+                }
+            }
+            write(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        System.out.printf("Generated %,d %s rows in %.1f s%n", rows, table, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        String row(long id);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.carins.config;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the application {@code dataSource} with datasource-proxy when at least one
+ * {@link QueryExecutionListener} bean is registered (request profiling, slow-query detection). Pools behind
+ * it (primary/replica) are left alone so statements are seen once.
+ */
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    private final ObjectProvider<QueryExecutionListener> listeners;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)
+                || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        List<QueryExecutionListener> registered = listeners.orderedStream().toList();
+        if (registered.isEmpty()) {
+            return bean;
+        }
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource).name(beanName);
+        registered.forEach(builder::listener);
+        return builder.build();
+    }
+}
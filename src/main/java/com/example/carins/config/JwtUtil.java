@@ -8,8 +8,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -23,6 +29,25 @@ public class JwtUtil {
     @Value("${app.jwt.expiration:86400000}")
     private Long jwtExpirationMs;
 
+    @Value("${app.jwt.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    /**
+     * Claims of tokens whose signature has already been verified, keyed by a SHA-256 digest of the
+     * token so raw bearer tokens are never retained. Entries are served only until the token's exp;
+     * once {@code cacheMaxSize} is reached each insert evicts the least recently used token.
+     */
+    private final Map<String, VerifiedToken> verifiedTokens = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                    return size() > cacheMaxSize;
+                }
+            });
+
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
     }
@@ -56,6 +81,43 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
+        if (!cacheEnabled) {
+            return parseClaims(token);
+        }
+
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(key, cached);
+        }
+
+        Claims claims = parseClaims(token);
+        cacheVerified(key, claims, now);
+        return claims;
+    }
+
+    private void cacheVerified(String key, Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.getTime() <= now) {
+            return;
+        }
+        verifiedTokens.put(key, new VerifiedToken(claims, expiration.getTime()));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Claims parseClaims(String token) {
         try {
             return Jwts.parser()
                     .verifyWith(getSigningKey())
@@ -80,14 +142,10 @@ public class JwtUtil {
         }
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            final Claims claims = extractAllClaims(token);
+            return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
             return false;
@@ -96,11 +154,13 @@ public class JwtUtil {
 
     public Boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !extractAllClaims(token).getExpiration().before(new Date());
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
+
+    private record VerifiedToken(Claims claims, long expiresAtMillis) {
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.carins.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs {@code EXPLAIN} for slow statements off the request thread, with the original bind values. Plans are
+ * cached per SQL string and at most {@code maxConcurrent} captures run at once; further requests are
+ * dropped rather than queued so a burst of slow queries cannot take more connections from the pool.
+ */
+@Slf4j
+public class QueryPlanCapture {
+
+    private final ObjectProvider<DataSource> dataSource;
+    private final String explainPrefix;
+    private final int cacheSize;
+    private final Semaphore permits;
+    private final Map<String, String> plans = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public QueryPlanCapture(ObjectProvider<DataSource> dataSource, String explainPrefix, int maxConcurrent, int cacheSize) {
+        this.dataSource = dataSource;
+        this.explainPrefix = explainPrefix.endsWith(" ") ? explainPrefix : explainPrefix + " ";
+        this.permits = new Semaphore(maxConcurrent);
+        this.cacheSize = cacheSize;
+    }
+
+    public static boolean isExplainable(String sql) {
+        String statement = sql.stripLeading();
+        return statement.regionMatches(true, 0, "select", 0, 6) || statement.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    /**
+     * Completes with the plan text, or with {@code null} when the capture was skipped.
+     */
+    public CompletableFuture<String> capture(String sql, Object[] parameters) {
+        String cached = plans.get(sql);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String plan = explain(sql, parameters);
+                if (plans.size() >= cacheSize) {
+                    plans.clear();
+                }
+                plans.put(sql, plan);
+                return plan;
+            } catch (RuntimeException e) {
+                log.debug("Could not capture plan for slow query: {}", e.getMessage());
+                return "unavailable: " + e.getMessage();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private String explain(String sql, Object[] parameters) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.getObject());
+        return String.join("\n", jdbcTemplate.query(explainPrefix + sql, (rs, rowNum) -> rs.getString(1), parameters));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+}
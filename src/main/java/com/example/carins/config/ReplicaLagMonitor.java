@@ -0,0 +1,53 @@
+package com.example.carins.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Periodically measures how far the read replica is behind the primary. The replica is only used
+ * while the measured lag is within the configured bound and the lag query itself succeeds.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, long maxLagMillis) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void refresh() {
+        boolean usable;
+        try {
+            Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+            usable = lagSeconds != null && lagSeconds * 1000 <= maxLagMillis;
+            if (!usable && replicaUsable) {
+                log.warn("Replica lag {}s exceeds {}ms, routing reads to primary", lagSeconds, maxLagMillis);
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+            }
+        }
+
+        if (usable && !replicaUsable) {
+            log.info("Replica within lag bound, routing read-only transactions to replica");
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+}
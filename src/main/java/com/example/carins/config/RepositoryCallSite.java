@@ -0,0 +1,62 @@
+package com.example.carins.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Tracks which repository method the current thread is executing ({@code CarRepository.findByVin}), so JDBC
+ * listeners can attribute statements to a call site. Statements issued outside a repository call have none.
+ */
+public final class RepositoryCallSite {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryCallSite() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Adds a {@link Tracker} to every Spring Data repository proxy.
+     */
+    public static class PostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repositoryInformation) ->
+                                proxyFactory.addAdvice(new Tracker(repositoryInformation.getRepositoryInterface()))));
+            }
+            return bean;
+        }
+    }
+
+    static class Tracker implements MethodInterceptor {
+
+        private final String repositoryName;
+
+        Tracker(Class<?> repositoryInterface) {
+            this.repositoryName = repositoryInterface.getSimpleName();
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            String previous = CURRENT.get();
+            CURRENT.set(repositoryName + "." + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        }
+    }
+}
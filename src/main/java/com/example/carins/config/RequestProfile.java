@@ -0,0 +1,105 @@
+package com.example.carins.config;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-request counters for sampled requests: JDBC statements, time spent in the database and time spent
+ * serializing the response. Bound to the request thread by {@link RequestProfilingFilter}; reads that hop to
+ * other threads carry it along with {@link #propagate(Supplier)}.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder dbNanos = new LongAdder();
+    private final LongAdder serializationNanos = new LongAdder();
+
+    private RequestProfile() {
+    }
+
+    static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    public static void recordStatement(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.statements.increment();
+            profile.dbNanos.add(nanos);
+        }
+    }
+
+    public static void recordSerialization(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) {
+            profile.serializationNanos.add(nanos);
+        }
+    }
+
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) {
+            return task;
+        }
+        return () -> {
+            RequestProfile previous = CURRENT.get();
+            CURRENT.set(profile);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long statements() {
+        return statements.sum();
+    }
+
+    public long dbNanos() {
+        return dbNanos.sum();
+    }
+
+    public long serializationNanos() {
+        return serializationNanos.sum();
+    }
+
+    /**
+     * Formats the counters as a {@code Server-Timing} header value. {@code app} is the handler time not
+     * spent in the database or in serialization; with parallel reads DB time can exceed wall time, so it
+     * is clamped at zero.
+     */
+    String serverTiming(long totalNanos) {
+        long appNanos = Math.max(0, totalNanos - dbNanos() - serializationNanos());
+        return String.format(Locale.ROOT,
+                "db;dur=%.2f;desc=\"%d statements\", serialization;dur=%.2f, app;dur=%.2f, total;dur=%.2f",
+                millis(dbNanos()), statements(), millis(serializationNanos()), millis(appNanos), millis(totalNanos));
+    }
+
+    static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
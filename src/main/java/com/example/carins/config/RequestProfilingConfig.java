@@ -0,0 +1,36 @@
+package com.example.carins.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class RequestProfilingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static DataSourceProxyPostProcessor dataSourceProxyPostProcessor(ObjectProvider<QueryExecutionListener> listeners) {
+        return new DataSourceProxyPostProcessor(listeners);
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new ProfilingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.profiling.enabled", havingValue = "true")
+    public RequestProfilingQueryListener requestProfilingQueryListener() {
+        return new RequestProfilingQueryListener();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StreamedResponseInterceptor());
+    }
+}
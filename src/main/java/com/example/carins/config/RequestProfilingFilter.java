@@ -0,0 +1,131 @@
+package com.example.carins.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Profiles a random sample of requests: the response gets a {@code Server-Timing} header with statement
+ * count, DB, serialization and total time, and one {@code request-profile} log line is written. Sampled
+ * responses are buffered so the header can be added after the body is serialized; unsampled requests
+ * pass straight through. Handlers marked {@link com.example.carins.web.StreamedResponse} write through
+ * unbuffered and only get the log line; asynchronous ones finish outside the profile and get neither.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+    /** Set by {@link StreamedResponseInterceptor} once the handler is known. */
+    static final String STREAMED_RESPONSE_ATTRIBUTE = RequestProfilingFilter.class.getName() + ".STREAMED";
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public RequestProfilingFilter(@Value("${app.profiling.enabled:false}") boolean enabled,
+                                  @Value("${app.profiling.sample-rate:0.01}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!sampled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ProfiledResponse profiledResponse = new ProfiledResponse(request, response);
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, profiledResponse);
+        } finally {
+            RequestProfile.end();
+            long totalNanos = profile.elapsedNanos();
+            boolean streamed = profiledResponse.streamed();
+            if (!streamed) {
+                profiledResponse.setHeader(SERVER_TIMING_HEADER, profile.serverTiming(totalNanos));
+            }
+            if (!request.isAsyncStarted()) {
+                log.info("request-profile method={} route={} status={} statements={} db_ms={} serialization_ms={} total_ms={}",
+                        request.getMethod(),
+                        route(request),
+                        response.getStatus(),
+                        profile.statements(),
+                        format(profile.dbNanos()),
+                        format(profile.serializationNanos()),
+                        format(totalNanos));
+            }
+            if (!streamed) {
+                profiledResponse.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean sampled() {
+        return enabled && sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static String format(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", RequestProfile.millis(nanos));
+    }
+
+    /**
+     * Buffers the body unless the request has been flagged as streamed by the time the handler asks for
+     * the output, in which case it writes straight to the client.
+     */
+    private static final class ProfiledResponse extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        ProfiledResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        boolean streamed() {
+            return request.getAttribute(STREAMED_RESPONSE_ATTRIBUTE) != null;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return streamed() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return streamed() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (streamed()) {
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+    }
+}
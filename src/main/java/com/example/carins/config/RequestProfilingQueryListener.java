@@ -0,0 +1,30 @@
+package com.example.carins.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts and times every JDBC execution against the current {@link RequestProfile}.
+ */
+public class RequestProfilingQueryListener implements QueryExecutionListener {
+
+    private static final String START = "profile.start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestProfile.isActive()) {
+            execInfo.addCustomValue(START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        if (start != null) {
+            RequestProfile.recordStatement(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.carins.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates the metrics scraper on {@code /actuator/prometheus} by a static bearer token, so scraping needs
+ * neither a user account nor its JWT. Grants only {@code ROLE_METRICS}; without a configured token nobody gets it.
+ */
+public class ScrapeTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    static final String PROMETHEUS_PATH = "/actuator/prometheus";
+    static final String SCRAPER_ROLE = "METRICS";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final byte[] scrapeToken;
+
+    public ScrapeTokenAuthenticationFilter(String scrapeToken) {
+        this.scrapeToken = scrapeToken == null ? new byte[0] : scrapeToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)
+                && MessageDigest.isEqual(scrapeToken,
+                        authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "metrics-scraper", null, List.of(new SimpleGrantedAuthority("ROLE_" + SCRAPER_ROLE))));
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return scrapeToken.length == 0 || !request.getRequestURI().equals(PROMETHEUS_PATH);
+    }
+}
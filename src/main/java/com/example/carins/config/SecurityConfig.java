@@ -2,8 +2,10 @@ package com.example.carins.config;
 
 import com.example.carins.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
@@ -40,7 +42,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${app.metrics.scrape-token:}") String scrapeToken) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authz -> authz
@@ -48,7 +51,12 @@ public class SecurityConfig {
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/api/auth/verify").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(ScrapeTokenAuthenticationFilter.PROMETHEUS_PATH)
+                                .hasAnyRole(ScrapeTokenAuthenticationFilter.SCRAPER_ROLE, "ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/actuator/slowqueries").hasRole("ADMIN")
                         .requestMatchers("/api/auth/logout").hasRole("USER")
+                        .requestMatchers(HttpMethod.POST, "/api/reports/providers/rebuild").hasRole("ADMIN")
                         .requestMatchers("/api/**").hasRole("USER")
                         .anyRequest().authenticated()
                 )
@@ -60,7 +68,8 @@ public class SecurityConfig {
                 .exceptionHandling(ex -> ex
                         .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new ScrapeTokenAuthenticationFilter(scrapeToken), UsernamePasswordAuthenticationFilter.class);
 
         http.headers(headers -> headers.frameOptions().sameOrigin());
 
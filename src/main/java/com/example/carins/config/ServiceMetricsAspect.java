@@ -0,0 +1,91 @@
+package com.example.carins.config;
+
+import com.example.carins.exception.AuthenticationException;
+import com.example.carins.exception.CarNotFoundException;
+import com.example.carins.exception.InvalidDateFormatException;
+import com.example.carins.exception.InvalidDateRangeException;
+import com.example.carins.exception.PreconditionFailedException;
+import com.example.carins.exception.ResourceNotFoundException;
+import com.example.carins.exception.UserAlreadyExistsException;
+import com.example.carins.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records a {@value #METRIC_NAME} timer for every public method of a {@code @Service} bean, tagged with
+ * the service class, method, outcome and the HTTP route pattern that triggered the call.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "carins.service";
+    static final String NO_ROUTE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = outcome(ex);
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Latency of service method calls")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .tag("route", currentRoute())
+                    .register(meterRegistry));
+        }
+    }
+
+    static String currentRoute() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            Object pattern = attributes.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                return pattern.toString();
+            }
+        }
+        return NO_ROUTE;
+    }
+
+    private static String outcome(Throwable ex) {
+        if (ex instanceof ResourceNotFoundException || ex instanceof CarNotFoundException) {
+            return "not-found";
+        }
+        if (ex instanceof ValidationException
+                || ex instanceof InvalidDateFormatException
+                || ex instanceof InvalidDateRangeException) {
+            return "validation-error";
+        }
+        if (ex instanceof UserAlreadyExistsException
+                || ex instanceof DataIntegrityViolationException
+                || ex instanceof OptimisticLockingFailureException
+                || ex instanceof PreconditionFailedException) {
+            return "conflict";
+        }
+        if (ex instanceof AuthenticationException || ex instanceof BadCredentialsException) {
+            return "unauthorized";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.carins.config;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One statement that exceeded the slow-query threshold. The plan is filled in asynchronously and stays
+ * {@code null} until captured (or for statements that are not explained).
+ */
+@Getter
+public class SlowQuery {
+
+    private final Instant capturedAt;
+    private final String repositoryMethod;
+    private final String sql;
+    private final List<String> parameters;
+    private final long elapsedMs;
+    private volatile String plan;
+
+    public SlowQuery(Instant capturedAt, String repositoryMethod, String sql, List<String> parameters, long elapsedMs) {
+        this.capturedAt = capturedAt;
+        this.repositoryMethod = repositoryMethod;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.elapsedMs = elapsedMs;
+    }
+
+    void setPlan(String plan) {
+        this.plan = plan;
+    }
+}
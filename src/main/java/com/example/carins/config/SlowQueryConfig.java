@@ -0,0 +1,45 @@
+package com.example.carins.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public static RepositoryCallSite.PostProcessor repositoryCallSitePostProcessor() {
+        return new RepositoryCallSite.PostProcessor();
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${app.slow-query.capacity:100}") int capacity) {
+        return new SlowQueryLog(capacity);
+    }
+
+    @Bean
+    public QueryPlanCapture queryPlanCapture(ObjectProvider<DataSource> dataSource,
+                                             @Value("${app.slow-query.explain-prefix:EXPLAIN (ANALYZE off)}") String explainPrefix,
+                                             @Value("${app.slow-query.max-concurrent-plans:2}") int maxConcurrentPlans,
+                                             @Value("${app.slow-query.capacity:100}") int capacity) {
+        return new QueryPlanCapture(dataSource, explainPrefix, maxConcurrentPlans, capacity);
+    }
+
+    @Bean
+    public SlowQueryListener slowQueryListener(@Value("${app.slow-query.threshold-ms:200}") long thresholdMs,
+                                               SlowQueryLog slowQueryLog,
+                                               QueryPlanCapture queryPlanCapture) {
+        return new SlowQueryListener(thresholdMs, slowQueryLog, queryPlanCapture);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog,
+                                               @Value("${app.slow-query.threshold-ms:200}") long thresholdMs) {
+        return new SlowQueryEndpoint(slowQueryLog, thresholdMs);
+    }
+}
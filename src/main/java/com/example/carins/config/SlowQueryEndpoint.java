@@ -0,0 +1,35 @@
+package com.example.carins.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the retained slow queries, newest first. {@code DELETE} empties the buffer.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+    private final long thresholdMs;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog, long thresholdMs) {
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdMs = thresholdMs;
+    }
+
+    @ReadOperation
+    public SlowQueryReport slowQueries() {
+        return new SlowQueryReport(thresholdMs, slowQueryLog.total(), slowQueryLog.recent());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+
+    public record SlowQueryReport(long thresholdMs, long total, List<SlowQuery> queries) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.carins.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Records statements issued by a repository method that take at least {@code thresholdMs}. Bind values are
+ * redacted except for numbers, booleans and dates, which identify the access pattern without exposing
+ * personal data; the plan is captured with the real values.
+ */
+@Slf4j
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private final long thresholdMs;
+    private final SlowQueryLog slowQueryLog;
+    private final QueryPlanCapture planCapture;
+
+    public SlowQueryListener(long thresholdMs, SlowQueryLog slowQueryLog, QueryPlanCapture planCapture) {
+        this.thresholdMs = thresholdMs;
+        this.slowQueryLog = slowQueryLog;
+        this.planCapture = planCapture;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String callSite = RepositoryCallSite.current();
+        if (callSite == null || execInfo.getElapsedTime() < thresholdMs) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            Object[] values = firstParameterSet(queryInfo);
+            SlowQuery slowQuery = new SlowQuery(Instant.now(), callSite, queryInfo.getQuery(),
+                    redactAll(values), execInfo.getElapsedTime());
+            slowQueryLog.add(slowQuery);
+            log.warn("Slow query in {} took {} ms: {}", callSite, slowQuery.getElapsedMs(), slowQuery.getSql());
+
+            if (QueryPlanCapture.isExplainable(queryInfo.getQuery())) {
+                planCapture.capture(queryInfo.getQuery(), values).thenAccept(slowQuery::setPlan);
+            }
+        }
+    }
+
+    static Object[] firstParameterSet(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return new Object[0];
+        }
+        List<ParameterSetOperation> operations = queryInfo.getParametersList().get(0);
+        Object[] values = new Object[operations.size()];
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            if (args.length < 1 || !(args[0] instanceof Integer index) || index < 1 || index > values.length) {
+                continue;
+            }
+            values[index - 1] = "setNull".equals(operation.getMethod().getName()) || args.length < 2 ? null : args[1];
+        }
+        return values;
+    }
+
+    static List<String> redactAll(Object[] values) {
+        return Arrays.stream(values).map(SlowQueryListener::redact).toList();
+    }
+
+    static String redact(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean
+                || value instanceof TemporalAccessor || value instanceof Date) {
+            return value.toString();
+        }
+        if (value instanceof CharSequence text) {
+            return "<redacted string, length " + text.length() + ">";
+        }
+        return "<redacted " + value.getClass().getSimpleName() + ">";
+    }
+}
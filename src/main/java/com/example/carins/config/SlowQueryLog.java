@@ -0,0 +1,53 @@
+package com.example.carins.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of the most recent slow queries; the oldest entry is overwritten when full.
+ */
+public class SlowQueryLog {
+
+    private final SlowQuery[] entries;
+    private int next;
+    private long total;
+
+    public SlowQueryLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow query log capacity must be positive");
+        }
+        this.entries = new SlowQuery[capacity];
+    }
+
+    public synchronized void add(SlowQuery query) {
+        entries[next] = query;
+        next = (next + 1) % entries.length;
+        total++;
+    }
+
+    /**
+     * Returns the retained entries, newest first.
+     */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> recent = new ArrayList<>(entries.length);
+        for (int i = 1; i <= entries.length; i++) {
+            SlowQuery entry = entries[Math.floorMod(next - i, entries.length)];
+            if (entry == null) {
+                break;
+            }
+            recent.add(entry);
+        }
+        return recent;
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+        total = 0;
+    }
+}
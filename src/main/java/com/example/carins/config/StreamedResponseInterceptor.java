@@ -0,0 +1,21 @@
+package com.example.carins.config;
+
+import com.example.carins.web.StreamedResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Flags requests handled by a {@link StreamedResponse} method before the handler writes anything.
+ */
+public class StreamedResponseInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && handlerMethod.hasMethodAnnotation(StreamedResponse.class)) {
+            request.setAttribute(RequestProfilingFilter.STREAMED_RESPONSE_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+}
@@ -8,15 +8,24 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Getter
 @Setter
 @Entity
 @NoArgsConstructor
-@Table(name = "car")
+@Table(name = "car", indexes = {
+        @Index(name = "idx_car_owner_id", columnList = "owner_id, id"),
+        @Index(name = "uk_car_vin", columnList = "vin", unique = true),
+        @Index(name = "idx_car_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_car_make_model_year_id", columnList = "make, model, year_of_manufacture, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Car {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+    @SequenceGenerator(name = "car_seq", sequenceName = "car_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -34,6 +43,13 @@ public class Car {
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "cars"})
     private Owner owner;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Car(String vin, String make, String model, int yearOfManufacture, Owner owner) {
         this.vin = vin;
         this.make = make;
@@ -41,4 +57,10 @@ public class Car {
         this.yearOfManufacture = yearOfManufacture;
         this.owner = owner;
     }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tombstone for a deleted row, so change-feed consumers learn about deletes as well as writes.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "deleted_entity", indexes = {
+        @Index(name = "idx_deleted_entity_deleted_at_id", columnList = "deleted_at, id")
+})
+public class DeletedEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deleted_entity_seq")
+    @SequenceGenerator(name = "deleted_entity_seq", sequenceName = "deleted_entity_seq", initialValue = 1000, allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private TrackedEntity entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public DeletedEntity(TrackedEntity entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
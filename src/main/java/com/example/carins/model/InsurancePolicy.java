@@ -9,17 +9,25 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Getter
 @Setter
 @Entity
 @NoArgsConstructor
-@Table(name = "insurancepolicy")
+@Table(name = "insurancepolicy", indexes = {
+        @Index(name = "idx_policy_car_dates", columnList = "car_id, start_date, end_date"),
+        @Index(name = "idx_policy_end_date", columnList = "end_date"),
+        @Index(name = "idx_policy_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_policy_provider_dates", columnList = "provider, start_date, end_date")
+})
 @Schema(description = "Insurance policy entity representing a car insurance policy")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class InsurancePolicy {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurancepolicy_seq")
+    @SequenceGenerator(name = "insurancepolicy_seq", sequenceName = "insurancepolicy_seq", initialValue = 1000, allocationSize = 50)
     @Schema(description = "Unique identifier of the insurance policy", example = "1")
     private Long id;
 
@@ -42,10 +50,25 @@ public class InsurancePolicy {
     @Schema(description = "Policy end date", example = "2025-01-01")
     private LocalDate endDate;
 
+    @Column(name = "updated_at")
+    @Schema(description = "Last time the policy was written")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Optimistic-locking version, also sent as the ETag", example = "0")
+    private Long version;
+
     public InsurancePolicy(Car car, String provider, LocalDate startDate, LocalDate endDate) {
         this.car = car;
         this.provider = provider;
         this.startDate = startDate;
         this.endDate = endDate;
     }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
@@ -8,23 +8,39 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Getter
 @Setter
 @Entity
 @NoArgsConstructor
-@Table(name = "owner")
+@Table(name = "owner", indexes = {
+        @Index(name = "idx_owner_updated_at_id", columnList = "updated_at, id")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Owner {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "owner_seq")
+    @SequenceGenerator(name = "owner_seq", sequenceName = "owner_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
     @NotBlank
     private String name;
     @Email
+    @Column(unique = true)
     private String email;
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     public Owner(String name, String email) {
         this.name = name;
         this.email = email;
     }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
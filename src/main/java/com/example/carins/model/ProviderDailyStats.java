@@ -0,0 +1,60 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One provider on one day: policies active that day, and policies that started or ended on it. A provider has a row
+ * for every day of its {@link ProviderStatsRange}, so "active on a date" is a single row per provider.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@IdClass(ProviderDailyStats.Key.class)
+@Table(name = "provider_daily_stats", indexes = {
+        @Index(name = "idx_provider_daily_stats_date", columnList = "stats_date")
+})
+public class ProviderDailyStats {
+
+    @Id
+    @Column(nullable = false)
+    private String provider;
+
+    @Id
+    @Column(name = "stats_date", nullable = false)
+    private LocalDate statsDate;
+
+    @Column(nullable = false)
+    private int active;
+
+    @Column(nullable = false)
+    private int started;
+
+    @Column(nullable = false)
+    private int ended;
+
+    public ProviderDailyStats(String provider, LocalDate statsDate, int active, int started, int ended) {
+        this.provider = provider;
+        this.statsDate = statsDate;
+        this.active = active;
+        this.started = started;
+        this.ended = ended;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String provider;
+        private LocalDate statsDate;
+    }
+}
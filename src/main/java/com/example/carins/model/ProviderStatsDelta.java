@@ -0,0 +1,46 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * A policy span added to ({@code delta = 1}) or removed from ({@code -1}) the provider histogram since its last
+ * rebuild.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "provider_stats_delta", indexes = {
+        @Index(name = "idx_provider_stats_delta_provider", columnList = "provider")
+})
+public class ProviderStatsDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "provider_stats_delta_seq")
+    @SequenceGenerator(name = "provider_stats_delta_seq", sequenceName = "provider_stats_delta_seq", initialValue = 1000, allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String provider;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(nullable = false)
+    private int delta;
+
+    public ProviderStatsDelta(String provider, LocalDate startDate, LocalDate endDate, int delta) {
+        this.provider = provider;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.delta = delta;
+    }
+}
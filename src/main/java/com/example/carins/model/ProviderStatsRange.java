@@ -0,0 +1,34 @@
+package com.example.carins.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * The days a provider's {@link ProviderDailyStats} rows cover, without gaps, as of the last rebuild.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "provider_stats_range")
+public class ProviderStatsRange {
+
+    @Id
+    private String provider;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    public ProviderStatsRange(String provider, LocalDate firstDate, LocalDate lastDate) {
+        this.provider = provider;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+    }
+}
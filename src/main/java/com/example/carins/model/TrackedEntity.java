@@ -0,0 +1,11 @@
+package com.example.carins.model;
+
+/**
+ * Entity types published on the change feed, in the order their changes are merged when they share a timestamp.
+ */
+public enum TrackedEntity {
+    OWNER,
+    CAR,
+    POLICY,
+    CLAIM
+}
@@ -22,7 +22,8 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", initialValue = 1000, allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -82,6 +83,8 @@ public class User implements UserDetails {
     }
 
     public enum Role {
-        USER
+        USER,
+        /** Operations accounts; assigned in the database, never through registration. */
+        ADMIN
     }
 }
@@ -1,17 +1,86 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.*;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
     @EntityGraph(attributePaths = {"owner"})
     List<Car> findAll();
+    @EntityGraph(attributePaths = {"owner"})
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Car c")
+    Stream<Car> streamAll();
+    @EntityGraph(attributePaths = {"owner"})
+    Optional<Car> findWithOwnerById(Long id);
+    @EntityGraph(attributePaths = {"owner"})
+    List<Car> findWithOwnerByIdIn(Collection<Long> ids);
     Optional<Car> findByVin(String vin);
+    @EntityGraph(attributePaths = {"owner"})
+    List<Car> findWithOwnerByVinStartingWithOrderByVin(String prefix, Limit limit);
+
+    /** Postgres only (pg_trgm, V10): VINs sharing enough trigrams with {@code vin}, most similar first. */
+    @Query(value = "SELECT c.id AS id, c.vin AS vin FROM car c WHERE c.vin % :vin " +
+            "ORDER BY similarity(c.vin, :vin) DESC, c.id LIMIT :limit", nativeQuery = true)
+    List<VinCandidate> findVinCandidates(@Param("vin") String vin, @Param("limit") int limit);
+    @EntityGraph(attributePaths = {"owner"})
     List<Car> findByOwnerId(Long ownerId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"owner"})
+    @Query("SELECT c FROM Car c WHERE c.updatedAt <= :until " +
+            "AND (c.updatedAt > :after OR (c.updatedAt = :after AND c.id > :afterId)) " +
+            "ORDER BY c.updatedAt, c.id")
+    List<Car> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    @Query("SELECT c.version AS version, o.updatedAt AS ownerUpdatedAt FROM Car c JOIN c.owner o WHERE c.id = :id")
+    Optional<CarStamp> findStampById(@Param("id") Long id);
+
+    @Query("SELECT c.version AS carVersion, " +
+            "(SELECT COUNT(p) FROM InsurancePolicy p WHERE p.car.id = c.id) AS policyCount, " +
+            "(SELECT MAX(p.updatedAt) FROM InsurancePolicy p WHERE p.car.id = c.id) AS policiesUpdatedAt, " +
+            "(SELECT COUNT(cl) FROM Claim cl WHERE cl.car.id = c.id) AS claimCount, " +
+            "(SELECT MAX(cl.updatedAt) FROM Claim cl WHERE cl.car.id = c.id) AS claimsUpdatedAt " +
+            "FROM Car c WHERE c.id = :id")
+    Optional<HistoryStamp> findHistoryStampById(@Param("id") Long id);
+
+    /** What a car's representation depends on: its own version and its embedded owner. */
+    interface CarStamp {
+        Long getVersion();
+
+        LocalDateTime getOwnerUpdatedAt();
+    }
+
+    /**
+     * What a car's history depends on. Counts catch deletes, the latest timestamps catch inserts and updates.
+     */
+    interface HistoryStamp {
+        Long getCarVersion();
+
+        Long getPolicyCount();
+
+        LocalDateTime getPoliciesUpdatedAt();
+
+        Long getClaimCount();
+
+        LocalDateTime getClaimsUpdatedAt();
+    }
+
+    interface VinCandidate {
+        Long getId();
+
+        String getVin();
+    }
+}
@@ -1,12 +1,33 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.Claim;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
     List<Claim> findByCarIdOrderByClaimDateDesc(Long carId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Claim> streamByCarIdOrderByClaimDateDesc(Long carId);
+
+    List<Claim> findByCarIdInOrderByClaimDateDesc(Collection<Long> carIds);
+
+    @Query("SELECT c FROM Claim c WHERE c.updatedAt <= :until " +
+            "AND (c.updatedAt > :after OR (c.updatedAt = :after AND c.id > :afterId)) " +
+            "ORDER BY c.updatedAt, c.id")
+    List<Claim> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
 }
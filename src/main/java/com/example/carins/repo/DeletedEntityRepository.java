@@ -0,0 +1,27 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.DeletedEntity;
+import com.example.carins.model.TrackedEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeletedEntityRepository extends JpaRepository<DeletedEntity, Long> {
+
+    @Query("SELECT d FROM DeletedEntity d WHERE d.deletedAt <= :until " +
+            "AND (d.deletedAt > :after OR (d.deletedAt = :after AND d.id > :afterId)) " +
+            "ORDER BY d.deletedAt, d.id")
+    List<DeletedEntity> findDeletedAfter(@Param("after") LocalDateTime after, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    default void recordDeletions(TrackedEntity entityType, Collection<Long> entityIds) {
+        saveAll(entityIds.stream().map(entityId -> new DeletedEntity(entityType, entityId)).toList());
+    }
+}
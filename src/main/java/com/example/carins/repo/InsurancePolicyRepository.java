@@ -1,14 +1,22 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.InsurancePolicy;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy, Long> {
@@ -25,6 +33,8 @@ public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy
 
     List<InsurancePolicy> findByCarId(Long carId);
 
+    List<InsurancePolicy> findByCarIdInOrderByStartDateAsc(Collection<Long> carIds);
+
     @Query("SELECT p FROM InsurancePolicy p WHERE p.endDate = :date")
     List<InsurancePolicy> findPoliciesExpiringOnDate(@Param("date") LocalDate date);
 
@@ -34,6 +44,49 @@ public interface InsurancePolicyRepository extends JpaRepository<InsurancePolicy
     @Query("SELECT p FROM InsurancePolicy p JOIN FETCH p.car c JOIN FETCH c.owner")
     List<InsurancePolicy> findAllWithCarAndOwner();
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM InsurancePolicy p JOIN FETCH p.car c JOIN FETCH c.owner")
+    Stream<InsurancePolicy> streamAllWithCarAndOwner();
+
     @Query("SELECT p FROM InsurancePolicy p JOIN FETCH p.car c JOIN FETCH c.owner WHERE p.id = :id")
     Optional<InsurancePolicy> findByIdWithCarAndOwner(@Param("id") Long id);
-}
\ No newline at end of file
+
+    @Query("SELECT p FROM InsurancePolicy p JOIN FETCH p.car c JOIN FETCH c.owner WHERE p.id IN :ids")
+    List<InsurancePolicy> findByIdInWithCarAndOwner(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM InsurancePolicy p WHERE p.updatedAt <= :until " +
+            "AND (p.updatedAt > :after OR (p.updatedAt = :after AND p.id > :afterId)) " +
+            "ORDER BY p.updatedAt, p.id")
+    List<InsurancePolicy> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    @Query("SELECT DISTINCT p.provider FROM InsurancePolicy p WHERE p.provider IS NOT NULL")
+    List<String> findAllProviders();
+
+    @Query("SELECT p.startDate AS date, COUNT(p) AS policies FROM InsurancePolicy p " +
+            "WHERE p.provider = :provider AND p.endDate >= p.startDate GROUP BY p.startDate")
+    List<DailyCount> countStartsByProvider(@Param("provider") String provider);
+
+    @Query("SELECT p.endDate AS date, COUNT(p) AS policies FROM InsurancePolicy p " +
+            "WHERE p.provider = :provider AND p.endDate >= p.startDate GROUP BY p.endDate")
+    List<DailyCount> countEndsByProvider(@Param("provider") String provider);
+
+    @Query("SELECT p.version AS version, c.version AS carVersion, o.updatedAt AS ownerUpdatedAt " +
+            "FROM InsurancePolicy p JOIN p.car c JOIN c.owner o WHERE p.id = :id")
+    Optional<PolicyStamp> findStampById(@Param("id") Long id);
+
+    interface DailyCount {
+        LocalDate getDate();
+
+        long getPolicies();
+    }
+
+    /** A policy is serialized with its car and the car's owner, so their changes change the policy's ETag too. */
+    interface PolicyStamp {
+        Long getVersion();
+
+        Long getCarVersion();
+
+        LocalDateTime getOwnerUpdatedAt();
+    }
+}
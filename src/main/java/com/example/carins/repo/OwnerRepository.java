@@ -1,12 +1,45 @@
 package com.example.carins.repo;
 
 import com.example.carins.model.Owner;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface OwnerRepository extends JpaRepository<Owner, Long> {
     boolean existsByEmail(String email);
-}
 
+    @Query("SELECT o.email FROM Owner o WHERE o.email IS NOT NULL")
+    Stream<String> streamAllEmails();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Owner o")
+    Stream<Owner> streamAll();
 
+    List<Owner> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT o FROM Owner o WHERE o.updatedAt <= :until " +
+            "AND (o.updatedAt > :after OR (o.updatedAt = :after AND o.id > :afterId)) " +
+            "ORDER BY o.updatedAt, o.id")
+    List<Owner> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") long afterId,
+            @Param("until") LocalDateTime until, Limit limit);
+
+    @Query("SELECT o.updatedAt AS updatedAt FROM Owner o WHERE o.id = :id")
+    Optional<OwnerStamp> findStampById(@Param("id") Long id);
+
+    interface OwnerStamp {
+        LocalDateTime getUpdatedAt();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.ProviderDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProviderDailyStatsRepository extends JpaRepository<ProviderDailyStats, ProviderDailyStats.Key> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProviderDailyStats s SET s.active = s.active + :delta " +
+            "WHERE s.provider = :provider AND s.statsDate BETWEEN :from AND :to")
+    int addActive(@Param("provider") String provider, @Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProviderDailyStats s SET s.started = s.started + :delta " +
+            "WHERE s.provider = :provider AND s.statsDate = :date")
+    int addStarted(@Param("provider") String provider, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProviderDailyStats s SET s.ended = s.ended + :delta " +
+            "WHERE s.provider = :provider AND s.statsDate = :date")
+    int addEnded(@Param("provider") String provider, @Param("date") LocalDate date, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ProviderDailyStats s WHERE s.provider = :provider")
+    int deleteByProvider(@Param("provider") String provider);
+
+    @Query("SELECT s.statsDate AS date, s.provider AS provider, s.active AS active FROM ProviderDailyStats s " +
+            "WHERE s.statsDate IN :dates AND s.active > 0 ORDER BY s.statsDate, s.active DESC, s.provider")
+    List<ActiveCount> findActiveOn(@Param("dates") Collection<LocalDate> dates);
+
+    @Query("SELECT YEAR(s.statsDate) AS year, MONTH(s.statsDate) AS month, s.provider AS provider, " +
+            "SUM(s.started) AS started, SUM(s.ended) AS ended FROM ProviderDailyStats s " +
+            "WHERE s.statsDate BETWEEN :from AND :to " +
+            "GROUP BY YEAR(s.statsDate), MONTH(s.statsDate), s.provider " +
+            "HAVING SUM(s.started) > 0 OR SUM(s.ended) > 0 " +
+            "ORDER BY YEAR(s.statsDate), MONTH(s.statsDate), s.provider")
+    List<MonthlyFlow> findMonthlyFlows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    interface ActiveCount {
+        LocalDate getDate();
+
+        String getProvider();
+
+        int getActive();
+    }
+
+    interface MonthlyFlow {
+        int getYear();
+
+        int getMonth();
+
+        String getProvider();
+
+        long getStarted();
+
+        long getEnded();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.ProviderStatsDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ProviderStatsDeltaRepository extends JpaRepository<ProviderStatsDelta, Long> {
+
+    /** Pending spans overlapping {@code from..to}, netted per span; spans whose changes cancel out are left out. */
+    @Query("SELECT d.provider AS provider, d.startDate AS startDate, d.endDate AS endDate, SUM(d.delta) AS delta " +
+            "FROM ProviderStatsDelta d WHERE d.startDate <= :to AND d.endDate >= :from " +
+            "GROUP BY d.provider, d.startDate, d.endDate HAVING SUM(d.delta) <> 0")
+    List<PendingSpan> findPending(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT d.provider FROM ProviderStatsDelta d")
+    List<String> findAllProviders();
+
+    List<ProviderStatsDelta> findByProvider(String provider);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ProviderStatsDelta d WHERE d.provider = :provider")
+    int deleteByProvider(@Param("provider") String provider);
+
+    interface PendingSpan {
+        String getProvider();
+
+        LocalDate getStartDate();
+
+        LocalDate getEndDate();
+
+        long getDelta();
+    }
+}
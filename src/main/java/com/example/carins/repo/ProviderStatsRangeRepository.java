@@ -0,0 +1,21 @@
+package com.example.carins.repo;
+
+import com.example.carins.model.ProviderStatsRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProviderStatsRangeRepository extends JpaRepository<ProviderStatsRange, String> {
+
+    /**
+     * Locks the provider's range row, or returns empty without waiting if someone else holds it. Native because
+     * Hibernate's H2 dialect drops {@code SKIP LOCKED}, which both Postgres and H2 2.2 support.
+     */
+    @Query(value = "SELECT * FROM provider_stats_range WHERE provider = :provider FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<ProviderStatsRange> tryLock(@Param("provider") String provider);
+}
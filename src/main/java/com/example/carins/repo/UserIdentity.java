@@ -0,0 +1,4 @@
+package com.example.carins.repo;
+
+public record UserIdentity(String username, String email) {
+}
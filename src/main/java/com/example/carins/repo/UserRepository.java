@@ -2,9 +2,13 @@ package com.example.carins.repo;
 
 import com.example.carins.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +16,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT new com.example.carins.repo.UserIdentity(u.username, u.email) FROM User u " +
+            "WHERE u.username = :username OR u.email = :email")
+    List<UserIdentity> findIdentitiesByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
+
+    @Query("SELECT new com.example.carins.repo.UserIdentity(u.username, u.email) FROM User u")
+    Stream<UserIdentity> streamAllIdentities();
 }
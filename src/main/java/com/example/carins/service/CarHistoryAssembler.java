@@ -0,0 +1,69 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.web.dto.CarHistoryDto;
+import com.example.carins.web.dto.HistoryEventDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Turns a car's policies and claims into its chronological history: a start and an end event per policy
+ * and one event per claim, ordered by date and then timestamp.
+ */
+public final class CarHistoryAssembler {
+
+    private static final Comparator<HistoryEventDto> CHRONOLOGICAL =
+            Comparator.comparing(HistoryEventDto::date).thenComparing(HistoryEventDto::timestamp);
+
+    private CarHistoryAssembler() {
+    }
+
+    public static CarHistoryDto assemble(Car car, List<InsurancePolicy> policies, List<Claim> claims) {
+        List<HistoryEventDto> events = new ArrayList<>(policies.size() * 2 + claims.size());
+
+        for (InsurancePolicy policy : policies) {
+            events.add(new HistoryEventDto(
+                    "INSURANCE_POLICY",
+                    policy.getStartDate(),
+                    String.format("Insurance policy started with %s (valid until %s)",
+                            policy.getProvider() != null ? policy.getProvider() : "Unknown Provider",
+                            policy.getEndDate()),
+                    policy.getStartDate().atStartOfDay()
+            ));
+
+            if (policy.getEndDate() != null) {
+                events.add(new HistoryEventDto(
+                        "INSURANCE_POLICY",
+                        policy.getEndDate(),
+                        String.format("Insurance policy with %s expired",
+                                policy.getProvider() != null ? policy.getProvider() : "Unknown Provider"),
+                        policy.getEndDate().atStartOfDay()
+                ));
+            }
+        }
+
+        for (Claim claim : claims) {
+            events.add(new HistoryEventDto(
+                    "CLAIM",
+                    claim.getClaimDate(),
+                    String.format("Claim filed: %s (Amount: $%.2f)", claim.getDescription(), claim.getAmount()),
+                    claim.getCreatedAt()
+            ));
+        }
+
+        events.sort(CHRONOLOGICAL);
+
+        return new CarHistoryDto(
+                car.getId(),
+                car.getVin(),
+                car.getMake(),
+                car.getModel(),
+                car.getYearOfManufacture(),
+                events
+        );
+    }
+}
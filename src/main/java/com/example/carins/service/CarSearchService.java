@@ -0,0 +1,211 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.web.dto.CarDto;
+import com.example.carins.web.dto.CarPageDto;
+import com.example.carins.web.dto.CarSearchCriteria;
+import com.example.carins.web.dto.VinMatchDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Car search with any combination of filters. Only the given filters become predicates, and each is a plain comparison
+ * on a column (no functions or leading wildcards), so Postgres can use idx_car_make_model_year_id, idx_car_owner_id
+ * and, for the active-policy filter, idx_policy_car_dates. Pages follow the car id (keyset), so deep pages cost the
+ * same as the first. VIN lookup by prefix or with typing errors is backed by the V10 indexes.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@Transactional(readOnly = true)
+public class CarSearchService {
+
+    public static final int MAX_LIMIT = 200;
+    public static final int MAX_VIN_MATCHES = 50;
+    public static final int MAX_VIN_ERRORS = 2;
+
+    static final int MIN_VIN_PREFIX = 3;
+    static final int MIN_FUZZY_VIN = 5;
+    static final int MAX_VIN_LENGTH = 32;
+    static final int VIN_CANDIDATES = 100;
+
+    private static final Pattern VIN_CHARACTERS = Pattern.compile("[A-Z0-9]+");
+
+    private final EntityManager entityManager;
+    private final CarRepository carRepository;
+
+    public CarPageDto search(CarSearchCriteria criteria, Long after, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (criteria.minYear() != null && criteria.maxYear() != null && criteria.minYear() > criteria.maxYear()) {
+            throw new ValidationException("minYear must not be after maxYear");
+        }
+        log.info("Searching cars by {} after {}, limit {}", criteria, after, limit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Car> car = query.from(Car.class);
+        Join<Car, Owner> owner = car.join("owner");
+
+        List<Predicate> where = new ArrayList<>();
+        if (criteria.make() != null) {
+            where.add(cb.equal(car.get("make"), criteria.make()));
+        }
+        if (criteria.model() != null) {
+            where.add(cb.equal(car.get("model"), criteria.model()));
+        }
+        if (criteria.minYear() != null) {
+            where.add(cb.ge(car.get("yearOfManufacture"), criteria.minYear()));
+        }
+        if (criteria.maxYear() != null) {
+            where.add(cb.le(car.get("yearOfManufacture"), criteria.maxYear()));
+        }
+        if (criteria.ownerId() != null) {
+            where.add(cb.equal(car.get("owner").get("id"), criteria.ownerId()));
+        }
+        if (criteria.activePolicyOn() != null) {
+            Subquery<Long> policy = query.subquery(Long.class);
+            Root<InsurancePolicy> p = policy.from(InsurancePolicy.class);
+            policy.select(p.get("id")).where(
+                    cb.equal(p.get("car"), car),
+                    cb.lessThanOrEqualTo(p.get("startDate"), criteria.activePolicyOn()),
+                    cb.greaterThanOrEqualTo(p.get("endDate"), criteria.activePolicyOn()));
+            where.add(cb.exists(policy));
+        }
+        if (after != null) {
+            where.add(cb.gt(car.get("id"), after));
+        }
+
+        query.multiselect(car.get("id"), car.get("vin"), car.get("make"), car.get("model"),
+                        car.get("yearOfManufacture"), owner.get("id"), owner.get("name"), owner.get("email"))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(car.get("id")));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasMore = rows.size() > limit;
+        List<CarDto> cars = rows.stream().limit(limit).map(CarSearchService::toDto).toList();
+        Long nextAfter = hasMore ? cars.get(cars.size() - 1).id() : null;
+        return new CarPageDto(cars, nextAfter, hasMore);
+    }
+
+    /** Cars whose VIN starts with {@code prefix}, in VIN order; served by idx_car_vin_pattern. */
+    public List<VinMatchDto> findByVinPrefix(String prefix, int limit) {
+        String typed = normalizeVin(prefix, MIN_VIN_PREFIX);
+        checkVinLimit(limit);
+        log.info("Looking up VINs starting with {}", typed);
+        return carRepository.findWithOwnerByVinStartingWithOrderByVin(typed, Limit.of(limit)).stream()
+                .map(car -> new VinMatchDto(CarDto.from(car), 0))
+                .toList();
+    }
+
+    /**
+     * Cars whose VIN is at most {@code maxErrors} edits away from {@code vin}, closest first. The trigram index narrows
+     * millions of VINs to the {@link #VIN_CANDIDATES} most similar ones; only those are compared character by character.
+     */
+    public List<VinMatchDto> findByVinFuzzy(String vin, int maxErrors, int limit) {
+        String typed = normalizeVin(vin, MIN_FUZZY_VIN);
+        if (maxErrors < 1 || maxErrors > MAX_VIN_ERRORS) {
+            throw new ValidationException("maxErrors must be between 1 and " + MAX_VIN_ERRORS);
+        }
+        checkVinLimit(limit);
+        log.info("Looking up VINs within {} errors of {}", maxErrors, typed);
+
+        Map<Long, Integer> errorsById = new LinkedHashMap<>();
+        for (CarRepository.VinCandidate candidate : carRepository.findVinCandidates(typed, VIN_CANDIDATES)) {
+            int errors = editDistance(typed, candidate.getVin(), maxErrors);
+            if (errors <= maxErrors) {
+                errorsById.put(candidate.getId(), errors);
+            }
+        }
+        List<Long> closest = errorsById.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (closest.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Car> cars = carRepository.findWithOwnerByIdIn(closest).stream()
+                .collect(Collectors.toMap(Car::getId, Function.identity()));
+        return closest.stream()
+                .filter(cars::containsKey)
+                .map(id -> new VinMatchDto(CarDto.from(cars.get(id)), errorsById.get(id)))
+                .toList();
+    }
+
+    private static String normalizeVin(String vin, int minLength) {
+        String typed = vin == null ? "" : vin.strip().toUpperCase(Locale.ROOT);
+        if (typed.length() < minLength || typed.length() > MAX_VIN_LENGTH
+                || !VIN_CHARACTERS.matcher(typed).matches()) {
+            throw new ValidationException("VIN lookup needs " + minLength + " to " + MAX_VIN_LENGTH
+                    + " letters or digits");
+        }
+        return typed;
+    }
+
+    private static void checkVinLimit(int limit) {
+        if (limit < 1 || limit > MAX_VIN_MATCHES) {
+            throw new ValidationException("limit must be between 1 and " + MAX_VIN_MATCHES);
+        }
+    }
+
+    /** Levenshtein distance, or {@code max + 1} as soon as it is certain to exceed {@code max}. */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    private static CarDto toDto(Tuple row) {
+        return new CarDto(row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class),
+                row.get(3, String.class), row.get(4, Integer.class),
+                new CarDto.OwnerDto(row.get(5, Long.class), row.get(6, String.class), row.get(7, String.class)));
+    }
+}
@@ -1,29 +1,38 @@
 package com.example.carins.service;
 
+import com.example.carins.exception.PreconditionFailedException;
 import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.exception.ValidationException;
 import com.example.carins.model.Car;
 import com.example.carins.model.Claim;
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.model.Owner;
+import com.example.carins.model.TrackedEntity;
 import com.example.carins.repo.CarRepository;
 import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.DeletedEntityRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.CarDto;
 import com.example.carins.web.dto.CarHistoryDto;
 import com.example.carins.web.dto.CreateCarDto;
-import com.example.carins.web.dto.HistoryEventDto;
+import com.example.carins.web.dto.MultiGetDto;
 import com.example.carins.web.dto.UpdateCarDto;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Slf4j
 @AllArgsConstructor
@@ -34,12 +43,24 @@ public class CarService {
     private final InsurancePolicyRepository policyRepository;
     private final ClaimRepository claimRepository;
     private final OwnerRepository ownerRepository;
+    private final ParallelReadExecutor parallelReadExecutor;
+    private final DeletedEntityRepository deletedEntityRepository;
+    private final JsonArrayWriter jsonArrayWriter;
+    private final ProviderHistogram providerHistogram;
 
     public List<Car> listCars() {
         log.info("Fetching all cars");
         return carRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public long writeCars(OutputStream out) throws IOException {
+        log.info("Streaming all cars");
+        try (Stream<Car> cars = carRepository.streamAll()) {
+            return jsonArrayWriter.write(cars, CarDto::from, out);
+        }
+    }
+
     @Transactional
     public Car createCar(CreateCarDto createCarDto) {
         log.info("Creating new car with VIN: {}", createCarDto.vin());
@@ -66,28 +87,42 @@ public class CarService {
 
     public Car getCarById(Long carId) {
         log.info("Fetching car with id: {}", carId);
-        return carRepository.findById(carId)
+        return carRepository.findWithOwnerById(carId)
+                .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + carId));
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetDto<CarDto> getCarsByIds(Collection<Long> carIds) {
+        log.info("Fetching {} cars by id", carIds.size());
+        return IdBatches.load(carIds, carRepository::findWithOwnerByIdIn, Car::getId, CarDto::from);
+    }
+
+    public CarRepository.CarStamp getCarStamp(Long carId) {
+        return carRepository.findStampById(carId)
+                .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + carId));
+    }
+
+    public CarRepository.HistoryStamp getCarHistoryStamp(Long carId) {
+        return carRepository.findHistoryStampById(carId)
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + carId));
     }
 
     public List<com.example.carins.web.dto.CarDto> getCarsByOwnerId(Long ownerId) {
         log.info("Fetching cars for owner with id: {}", ownerId);
         List<Car> cars = carRepository.findByOwnerId(ownerId);
-        return cars.stream().map(this::toDto).toList();
-    }
-
-    private com.example.carins.web.dto.CarDto toDto(Car c) {
-        var o = c.getOwner();
-        var ownerDto = o != null ? new com.example.carins.web.dto.CarDto.OwnerDto(o.getId(), o.getName(), o.getEmail()) : null;
-        return new com.example.carins.web.dto.CarDto(c.getId(), c.getVin(), c.getMake(), c.getModel(), c.getYearOfManufacture(), ownerDto);
+        return cars.stream().map(com.example.carins.web.dto.CarDto::from).toList();
     }
 
     @Transactional
-    public Car updateCar(Long carId, UpdateCarDto updateCarDto) {
+    public Car updateCar(Long carId, UpdateCarDto updateCarDto, Long expectedVersion) {
         log.info("Updating car with id: {}", carId);
         
-        Car car = carRepository.findById(carId)
+        Car car = carRepository.findWithOwnerById(carId)
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + carId));
+        if (expectedVersion != null && !expectedVersion.equals(car.getVersion())) {
+            throw new PreconditionFailedException("Car " + carId + " has version " + car.getVersion()
+                    + ", not " + expectedVersion + ". Reload it and retry.");
+        }
 
         if (updateCarDto.vin() != null && !updateCarDto.vin().equals(car.getVin())) {
             if (carRepository.findByVin(updateCarDto.vin()).isPresent()) {
@@ -115,9 +150,12 @@ public class CarService {
         if (!policies.isEmpty()) {
             log.info("Deleting {} insurance policies for car id: {}", policies.size(), carId);
             policyRepository.deleteAll(policies);
+            policies.forEach(policy -> providerHistogram.remove(ProviderHistogram.Span.of(policy)));
+            deletedEntityRepository.recordDeletions(TrackedEntity.POLICY, policies.stream().map(InsurancePolicy::getId).toList());
         }
         
-        Car savedCar = carRepository.save(car);
+        // Flushed here so the returned version (the new ETag) is final and a lost race surfaces as a conflict
+        Car savedCar = carRepository.saveAndFlush(car);
         log.info("Successfully updated car with id: {}", savedCar.getId());
         return savedCar;
     }
@@ -133,18 +171,23 @@ public class CarService {
         if (!policies.isEmpty()) {
             log.info("Deleting {} insurance policies for car id: {}", policies.size(), carId);
             policyRepository.deleteAll(policies);
+            policies.forEach(policy -> providerHistogram.remove(ProviderHistogram.Span.of(policy)));
+            deletedEntityRepository.recordDeletions(TrackedEntity.POLICY, policies.stream().map(InsurancePolicy::getId).toList());
         }
 
         List<Claim> claims = claimRepository.findByCarIdOrderByClaimDateDesc(carId);
         if (!claims.isEmpty()) {
             log.info("Deleting {} claims for car id: {}", claims.size(), carId);
             claimRepository.deleteAll(claims);
+            deletedEntityRepository.recordDeletions(TrackedEntity.CLAIM, claims.stream().map(Claim::getId).toList());
         }
         
         carRepository.delete(car);
+        deletedEntityRepository.recordDeletions(TrackedEntity.CAR, List.of(carId));
         log.info("Successfully deleted car with id: {}", carId);
     }
 
+    @Transactional(readOnly = true)
     public boolean isInsuranceValid(Long carId, String dateStr) {
         log.info("Checking insurance validity for car: {} on date: {}", carId, dateStr);
 
@@ -171,56 +214,22 @@ public class CarService {
         return isValid;
     }
 
+    /** Opens no transaction itself: concurrent reads bring their own, sequential ones share one. */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public CarHistoryDto getCarHistory(Long carId) {
         log.info("Fetching history for car: {}", carId);
 
-        Car car = carRepository.findById(carId)
-                .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + carId));
+        return parallelReadExecutor.readGroup(() -> {
+            CompletableFuture<Optional<Car>> carLookup = parallelReadExecutor.submit(() -> carRepository.findById(carId));
+            CompletableFuture<List<InsurancePolicy>> policyLookup = parallelReadExecutor.submit(() -> policyRepository.findByCarId(carId));
+            CompletableFuture<List<Claim>> claimLookup = parallelReadExecutor.submit(() -> claimRepository.findByCarIdOrderByClaimDateDesc(carId));
 
-        List<HistoryEventDto> events = new ArrayList<>();
+            Car car = ParallelReadExecutor.await(carLookup)
+                    .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + carId));
 
-        List<InsurancePolicy> policies = policyRepository.findByCarId(carId);
-        for (InsurancePolicy policy : policies) {
-            events.add(new HistoryEventDto(
-                    "INSURANCE_POLICY",
-                    policy.getStartDate(),
-                    String.format("Insurance policy started with %s (valid until %s)",
-                            policy.getProvider() != null ? policy.getProvider() : "Unknown Provider",
-                            policy.getEndDate()),
-                    policy.getStartDate().atStartOfDay()
-            ));
-
-            if (policy.getEndDate() != null) {
-                events.add(new HistoryEventDto(
-                        "INSURANCE_POLICY",
-                        policy.getEndDate(),
-                        String.format("Insurance policy with %s expired",
-                                policy.getProvider() != null ? policy.getProvider() : "Unknown Provider"),
-                        policy.getEndDate().atStartOfDay()
-                ));
-            }
-        }
-
-        List<Claim> claims = claimRepository.findByCarIdOrderByClaimDateDesc(carId);
-        for (Claim claim : claims) {
-            events.add(new HistoryEventDto(
-                    "CLAIM",
-                    claim.getClaimDate(),
-                    String.format("Claim filed: %s (Amount: $%.2f)", claim.getDescription(), claim.getAmount()),
-                    claim.getCreatedAt()
-            ));
-        }
-
-        events.sort(Comparator.comparing(HistoryEventDto::date)
-                .thenComparing(HistoryEventDto::timestamp));
-
-        return new CarHistoryDto(
-                car.getId(),
-                car.getVin(),
-                car.getMake(),
-                car.getModel(),
-                car.getYearOfManufacture(),
-                events
-        );
+            return CarHistoryAssembler.assemble(car,
+                    ParallelReadExecutor.await(policyLookup),
+                    ParallelReadExecutor.await(claimLookup));
+        });
     }
 }
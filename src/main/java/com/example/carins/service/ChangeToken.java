@@ -0,0 +1,59 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in the change feed: the last delivered change's timestamp, the stream it came from and its id within that
+ * stream. Streams with the same timestamp are ordered by number, so a position is unambiguous even when several rows
+ * share a microsecond.
+ */
+record ChangeToken(LocalDateTime changedAt, int stream, long id) implements Comparable<ChangeToken> {
+
+    static final ChangeToken START = new ChangeToken(LocalDateTime.of(1970, 1, 1, 0, 0), -1, 0);
+
+    /** Lower id bound for {@code stream} at {@link #changedAt()}: earlier streams are done, later ones not started. */
+    long afterId(int stream) {
+        if (stream < this.stream) {
+            return Long.MAX_VALUE;
+        }
+        return stream == this.stream ? id : Long.MIN_VALUE;
+    }
+
+    String encode() {
+        long micros = ChronoUnit.MICROS.between(START.changedAt, changedAt);
+        String raw = micros + ":" + stream + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChangeToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("expected 3 parts");
+            }
+            long micros = Long.parseLong(parts[0]);
+            LocalDateTime changedAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                    (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+            return new ChangeToken(changedAt, Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new ValidationException("Invalid change token: " + token);
+        }
+    }
+
+    @Override
+    public int compareTo(ChangeToken other) {
+        int byTime = changedAt.compareTo(other.changedAt);
+        if (byTime != 0) {
+            return byTime;
+        }
+        int byStream = Integer.compare(stream, other.stream);
+        return byStream != 0 ? byStream : Long.compare(id, other.id);
+    }
+}
@@ -12,7 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,6 +26,7 @@ public class ClaimService {
 
     private final ClaimRepository claimRepository;
     private final CarRepository carRepository;
+    private final JsonArrayWriter jsonArrayWriter;
 
     public ClaimResponseDto createClaim(Long carId, ClaimCreateDto claimCreateDto) {
         log.info("Creating claim for car: {}", carId);
@@ -40,30 +44,34 @@ public class ClaimService {
         Claim savedClaim = claimRepository.save(claim);
         log.info("Successfully created claim with id: {} for car: {}", savedClaim.getId(), carId);
 
-        return mapToResponseDto(savedClaim);
+        return ClaimResponseDto.from(savedClaim);
     }
 
+    @Transactional(readOnly = true)
     public List<ClaimResponseDto> getClaimsByCarId(Long carId) {
         log.info("Fetching claims for car: {}", carId);
 
-        if (!carRepository.existsById(carId)) {
-            throw new ResourceNotFoundException("Car not found with id: " + carId);
-        }
-
+        requireCar(carId);
         List<Claim> claims = claimRepository.findByCarIdOrderByClaimDateDesc(carId);
         return claims.stream()
-                .map(this::mapToResponseDto)
+                .map(ClaimResponseDto::from)
                 .toList();
     }
 
-    private ClaimResponseDto mapToResponseDto(Claim claim) {
-        return new ClaimResponseDto(
-                claim.getId(),
-                claim.getCar().getId(),
-                claim.getClaimDate(),
-                claim.getDescription(),
-                claim.getAmount(),
-                claim.getCreatedAt()
-        );
+    /** Checks the car before the first byte is written, so a missing car is still a 404 and not an empty array. */
+    @Transactional(readOnly = true)
+    public long writeClaimsByCarId(Long carId, OutputStream out) throws IOException {
+        log.info("Streaming claims for car: {}", carId);
+
+        requireCar(carId);
+        try (Stream<Claim> claims = claimRepository.streamByCarIdOrderByClaimDateDesc(carId)) {
+            return jsonArrayWriter.write(claims, ClaimResponseDto::from, out);
+        }
+    }
+
+    private void requireCar(Long carId) {
+        if (!carRepository.existsById(carId)) {
+            throw new ResourceNotFoundException("Car not found with id: " + carId);
+        }
     }
 }
@@ -0,0 +1,54 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tables available through {@code /api/export}. Each query selects from alias {@code t} so the id watermark and
+ * {@code updated_at} filters can be appended uniformly.
+ */
+public enum ExportDataset {
+
+    POLICIES("policies",
+            "SELECT t.id, t.car_id, t.provider, t.start_date, t.end_date, t.updated_at FROM insurancepolicy t",
+            List.of("id", "carId", "provider", "startDate", "endDate", "updatedAt")),
+    CLAIMS("claims",
+            "SELECT t.id, t.car_id, t.claim_date, t.description, t.amount, t.created_at, t.updated_at FROM claim t",
+            List.of("id", "carId", "claimDate", "description", "amount", "createdAt", "updatedAt")),
+    CARS("cars",
+            "SELECT t.id, t.vin, t.make, t.model, t.year_of_manufacture, t.owner_id, o.name, o.email, t.updated_at "
+                    + "FROM car t JOIN owner o ON o.id = t.owner_id",
+            List.of("id", "vin", "make", "model", "yearOfManufacture", "ownerId", "ownerName", "ownerEmail", "updatedAt"));
+
+    private final String name;
+    private final String select;
+    private final List<String> columns;
+
+    ExportDataset(String name, String select, List<String> columns) {
+        this.name = name;
+        this.select = select;
+        this.columns = columns;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    String query(boolean updatedSince) {
+        return select + " WHERE t.id > ?" + (updatedSince ? " AND t.updated_at >= ?" : "") + " ORDER BY t.id";
+    }
+
+    public static ExportDataset fromName(String name) {
+        return Arrays.stream(values())
+                .filter(dataset -> dataset.name.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Unknown export dataset: " + name
+                        + " (expected one of policies, claims, cars)"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+
+import java.util.Arrays;
+
+public enum ExportFormat {
+
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String name;
+    private final String contentType;
+
+    ExportFormat(String name, String contentType) {
+        this.name = name;
+        this.contentType = contentType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ExportFormat fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name.equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new ValidationException("Unknown export format: " + name + " (expected csv or ndjson)"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+
+import java.util.List;
+
+/**
+ * Fields a client can pick with {@code fields=}, in the order of the full representation. Each name is both the
+ * JSON path in that representation and the entity attribute path, so a selection maps straight onto a JPQL select
+ * list, and Hibernate only joins an association when a selected path goes through it ({@code owner.id} is read
+ * from the foreign key).
+ */
+public enum FieldCatalog {
+
+    CARS(Car.class, "Car", "owner.id",
+            List.of("id", "vin", "make", "model", "yearOfManufacture", "owner.id", "owner.name", "owner.email")),
+    OWNERS(Owner.class, "Owner", null,
+            List.of("id", "name", "email")),
+    POLICIES(InsurancePolicy.class, "Insurance policy", "car.id",
+            List.of("id", "car.id", "car.vin", "car.make", "car.model", "car.yearOfManufacture",
+                    "car.owner.id", "car.owner.name", "car.owner.email", "car.owner.updatedAt",
+                    "car.updatedAt", "car.version", "provider", "startDate", "endDate", "updatedAt", "version"));
+
+    private final Class<?> entity;
+    private final String label;
+    private final String parentPath;
+    private final List<String> paths;
+
+    FieldCatalog(Class<?> entity, String label, String parentPath, List<String> paths) {
+        this.entity = entity;
+        this.label = label;
+        this.parentPath = parentPath;
+        this.paths = paths;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    String getEntityName() {
+        return entity.getSimpleName();
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    /** Path of the parent's id for nested lists ({@code /owners/{id}/cars}, {@code /policies/car/{id}}). */
+    String getParentPath() {
+        return parentPath;
+    }
+}
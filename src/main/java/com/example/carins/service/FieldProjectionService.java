@@ -0,0 +1,64 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Serves {@code fields=} requests: one query that selects only the chosen columns and joins only the associations
+ * they go through, written as trimmed JSON objects instead of entities or DTOs.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@Transactional(readOnly = true)
+public class FieldProjectionService {
+
+    private final EntityManager entityManager;
+    private final JsonArrayWriter jsonArrayWriter;
+
+    public long writeAll(FieldSelection fields, OutputStream out) throws IOException {
+        log.info("Streaming {} fields {}", fields.getCatalog(), fields.getPaths());
+        try (Stream<Tuple> rows = query(fields, null).getResultStream()) {
+            return jsonArrayWriter.write(rows, fields::toJson, out);
+        }
+    }
+
+    /** The children of one parent, e.g. the cars of an owner or the policies of a car. */
+    public List<Map<String, Object>> findByParent(FieldSelection fields, Long parentId) {
+        log.info("Fetching {} fields {} of parent {}", fields.getCatalog(), fields.getPaths(), parentId);
+        return query(fields, fields.getCatalog().getParentPath())
+                .setParameter("value", parentId)
+                .getResultList().stream()
+                .map(fields::toJson)
+                .toList();
+    }
+
+    public Map<String, Object> getById(FieldSelection fields, Long id) {
+        log.info("Fetching {} {} fields {}", fields.getCatalog(), id, fields.getPaths());
+        try (Stream<Tuple> rows = query(fields, "id").setParameter("value", id).getResultStream()) {
+            return rows.findFirst()
+                    .map(fields::toJson)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            fields.getCatalog().getLabel() + " not found with id: " + id));
+        }
+    }
+
+    private TypedQuery<Tuple> query(FieldSelection fields, String conditionPath) {
+        return entityManager.createQuery(fields.jpql(conditionPath), Tuple.class)
+                .setHint(HINT_FETCH_SIZE, JsonArrayWriter.CLEAR_EVERY);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import jakarta.persistence.Tuple;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A validated {@code fields=} parameter: the selected paths of a {@link FieldCatalog}, in catalog order and without
+ * duplicates. Naming an object ({@code owner}) selects all of its fields.
+ */
+public final class FieldSelection {
+
+    private static final String ALIAS = "e";
+
+    private final FieldCatalog catalog;
+    private final List<String> paths;
+    private final List<String[]> segments;
+
+    private FieldSelection(FieldCatalog catalog, List<String> paths) {
+        this.catalog = catalog;
+        this.paths = paths;
+        this.segments = paths.stream().map(path -> path.split("\\.")).toList();
+    }
+
+    public static FieldSelection parse(FieldCatalog catalog, String fields) {
+        Set<String> selected = new HashSet<>();
+        for (String token : fields.split(",")) {
+            String field = token.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            List<String> matching = catalog.getPaths().stream()
+                    .filter(path -> path.equals(field) || path.startsWith(field + "."))
+                    .toList();
+            if (matching.isEmpty()) {
+                throw new ValidationException("Unknown field '" + field + "'. Available fields: "
+                        + String.join(", ", catalog.getPaths()));
+            }
+            selected.addAll(matching);
+        }
+        if (selected.isEmpty()) {
+            throw new ValidationException("fields must name at least one field");
+        }
+        return new FieldSelection(catalog, catalog.getPaths().stream().filter(selected::contains).toList());
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /** Identifies the selection in an ETag; distinct selections are distinct representations. */
+    public String fingerprint() {
+        return String.join("+", paths);
+    }
+
+    FieldCatalog getCatalog() {
+        return catalog;
+    }
+
+    /** Selects exactly the chosen paths, optionally restricted to {@code conditionPath = :value}. */
+    String jpql(String conditionPath) {
+        String select = paths.stream()
+                .map(path -> ALIAS + "." + path)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM " + catalog.getEntityName() + " " + ALIAS));
+        return conditionPath == null ? select : select + " WHERE " + ALIAS + "." + conditionPath + " = :value";
+    }
+
+    /** One result row as the trimmed JSON object, nesting dotted paths. */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> toJson(Tuple row) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            String[] path = segments.get(i);
+            Map<String, Object> node = root;
+            for (int j = 0; j < path.length - 1; j++) {
+                node = (Map<String, Object>) node.computeIfAbsent(path[j], key -> new LinkedHashMap<String, Object>());
+            }
+            node.put(path[path.length - 1], row.get(i));
+        }
+        return root;
+    }
+}
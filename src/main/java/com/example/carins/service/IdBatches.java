@@ -0,0 +1,58 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import com.example.carins.web.dto.MultiGetDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Loads a set of ids with one {@code IN} query per chunk instead of one query per id. Chunks are at most
+ * {@link #CHUNK_SIZE} ids; with {@code in_clause_parameter_padding} the database sees a handful of statement shapes
+ * (1, 2, 4, ... 256 parameters) instead of one per set size.
+ */
+final class IdBatches {
+
+    static final int CHUNK_SIZE = 256;
+    static final int MAX_IDS = 1000;
+
+    private IdBatches() {
+    }
+
+    static <E, T> MultiGetDto<T> load(Collection<Long> ids, Function<List<Long>, List<E>> query,
+                                      Function<E, Long> idOf, Function<E, T> mapper) {
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (requested.isEmpty()) {
+            throw new ValidationException("ids must name at least one id");
+        }
+        if (requested.size() > MAX_IDS) {
+            throw new ValidationException("At most " + MAX_IDS + " ids can be requested at once, got "
+                    + requested.size());
+        }
+
+        Map<Long, E> found = new HashMap<>();
+        for (int from = 0; from < requested.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = requested.subList(from, Math.min(from + CHUNK_SIZE, requested.size()));
+            for (E entity : query.apply(chunk)) {
+                found.put(idOf.apply(entity), entity);
+            }
+        }
+
+        List<T> items = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            E entity = found.get(id);
+            if (entity != null) {
+                items.add(mapper.apply(entity));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetDto<>(items, missingIds);
+    }
+}
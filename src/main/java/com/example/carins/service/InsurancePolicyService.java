@@ -1,19 +1,29 @@
 package com.example.carins.service;
 
+import com.example.carins.exception.PreconditionFailedException;
 import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.model.Car;
 import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.TrackedEntity;
 import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.DeletedEntityRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.web.dto.InsurancePolicyCreateDto;
 import com.example.carins.web.dto.InsurancePolicyUpdateDto;
+import com.example.carins.web.dto.MultiGetDto;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,11 +33,15 @@ public class InsurancePolicyService {
 
     private final InsurancePolicyRepository policyRepository;
     private final CarRepository carRepository;
+    private final DeletedEntityRepository deletedEntityRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final JsonArrayWriter jsonArrayWriter;
+    private final ProviderHistogram providerHistogram;
 
     public InsurancePolicy createPolicy(InsurancePolicyCreateDto dto) {
         log.info("Creating insurance policy for car: {}", dto.carId());
 
-        Car car = carRepository.findById(dto.carId())
+        Car car = carRepository.findWithOwnerById(dto.carId())
                 .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + dto.carId()));
 
         InsurancePolicy policy = new InsurancePolicy(
@@ -38,6 +52,7 @@ public class InsurancePolicyService {
         );
 
         InsurancePolicy savedPolicy = policyRepository.save(policy);
+        providerHistogram.add(ProviderHistogram.Span.of(savedPolicy));
         log.info("Successfully created insurance policy with id: {} for car: {}",
                 savedPolicy.getId(), dto.carId());
 
@@ -51,26 +66,52 @@ public class InsurancePolicyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Insurance policy not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetDto<InsurancePolicy> getPoliciesByIds(Collection<Long> ids) {
+        log.info("Retrieving {} insurance policies by id", ids.size());
+        return IdBatches.load(ids, policyRepository::findByIdInWithCarAndOwner, InsurancePolicy::getId,
+                Function.identity());
+    }
+
+    @Transactional(readOnly = true)
+    public InsurancePolicyRepository.PolicyStamp getPolicyStamp(Long id) {
+        return policyRepository.findStampById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Insurance policy not found with id: " + id));
+    }
+
     @Transactional(readOnly = true)
     public List<InsurancePolicy> getAllPolicies() {
         log.info("Retrieving all insurance policies");
         return policyRepository.findAllWithCarAndOwner();
     }
 
+    @Transactional(readOnly = true)
+    public long writeAllPolicies(OutputStream out) throws IOException {
+        log.info("Streaming all insurance policies");
+        try (Stream<InsurancePolicy> policies = policyRepository.streamAllWithCarAndOwner()) {
+            return jsonArrayWriter.write(policies, Function.identity(), out);
+        }
+    }
+
     @Transactional(readOnly = true)
     public List<InsurancePolicy> getPoliciesByCarId(Long carId) {
         log.info("Retrieving insurance policies for car: {}", carId);
         return policyRepository.findByCarIdWithCarAndOwner(carId);
     }
 
-    public InsurancePolicy updatePolicy(Long id, InsurancePolicyUpdateDto dto) {
+    public InsurancePolicy updatePolicy(Long id, InsurancePolicyUpdateDto dto, Long expectedVersion) {
         log.info("Updating insurance policy with id: {}", id);
 
-        InsurancePolicy existingPolicy = policyRepository.findById(id)
+        InsurancePolicy existingPolicy = policyRepository.findByIdWithCarAndOwner(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Insurance policy not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existingPolicy.getVersion())) {
+            throw new PreconditionFailedException("Insurance policy " + id + " has version " + existingPolicy.getVersion()
+                    + ", not " + expectedVersion + ". Reload it and retry.");
+        }
+        ProviderHistogram.Span before = ProviderHistogram.Span.of(existingPolicy);
 
         if (dto.carId() != null) {
-            Car car = carRepository.findById(dto.carId())
+            Car car = carRepository.findWithOwnerById(dto.carId())
                     .orElseThrow(() -> new ResourceNotFoundException("Car not found with id: " + dto.carId()));
             existingPolicy.setCar(car);
         }
@@ -85,7 +126,9 @@ public class InsurancePolicyService {
             existingPolicy.setEndDate(dto.endDate());
         }
 
-        InsurancePolicy updatedPolicy = policyRepository.save(existingPolicy);
+        // Flushed here so the returned version (the new ETag) is final and a lost race surfaces as a conflict
+        InsurancePolicy updatedPolicy = policyRepository.saveAndFlush(existingPolicy);
+        providerHistogram.update(before, updatedPolicy);
         log.info("Successfully updated insurance policy with id: {}", id);
 
         return updatedPolicy;
@@ -94,28 +137,45 @@ public class InsurancePolicyService {
     public void deletePolicy(Long id) {
         log.info("Deleting insurance policy with id: {}", id);
 
-        if (!policyRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Insurance policy not found with id: " + id);
-        }
+        InsurancePolicy policy = policyRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Insurance policy not found with id: " + id));
 
-        policyRepository.deleteById(id);
+        policyRepository.delete(policy);
+        providerHistogram.remove(ProviderHistogram.Span.of(policy));
+        deletedEntityRepository.recordDeletions(TrackedEntity.POLICY, List.of(id));
         log.info("Successfully deleted insurance policy with id: {}", id);
     }
 
+    /**
+     * Each policy is fixed in its own transaction and retried on a version conflict: the fix only fills a missing end
+     * date, so re-running it on the freshly read row is safe.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void fixOpenEndedPolicies() {
         log.info("Fixing open-ended policies by setting default end dates");
 
-        List<InsurancePolicy> openEndedPolicies = policyRepository.findOpenEndedPolicies();
-
-        for (InsurancePolicy policy : openEndedPolicies) {
-            LocalDate endDate = policy.getStartDate().plusYears(1);
-            policy.setEndDate(endDate);
-            policyRepository.save(policy);
+        List<Long> openEndedPolicyIds = policyRepository.findOpenEndedPolicies().stream()
+                .map(InsurancePolicy::getId)
+                .toList();
 
-            log.info("Fixed open-ended policy {} by setting end date to {}",
-                    policy.getId(), endDate);
+        for (Long policyId : openEndedPolicyIds) {
+            optimisticRetry.run(() -> fixOpenEndedPolicy(policyId));
         }
 
-        log.info("Fixed {} open-ended policies", openEndedPolicies.size());
+        log.info("Fixed {} open-ended policies", openEndedPolicyIds.size());
+    }
+
+    private void fixOpenEndedPolicy(Long policyId) {
+        policyRepository.findById(policyId)
+                .filter(policy -> policy.getEndDate() == null)
+                .ifPresent(policy -> {
+                    LocalDate endDate = policy.getStartDate().plusYears(1);
+                    policy.setEndDate(endDate);
+                    policyRepository.save(policy);
+                    providerHistogram.add(ProviderHistogram.Span.of(policy));
+
+                    log.info("Fixed open-ended policy {} by setting end date to {}",
+                            policy.getId(), endDate);
+                });
     }
 }
@@ -0,0 +1,69 @@
+package com.example.carins.service;
+
+import com.example.carins.config.RequestProfile;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository stream as one JSON array, element by element, so neither the result list nor the
+ * serialized body is held in memory. Has to run inside the read-only transaction that opened the stream; the
+ * persistence context is cleared every {@link #CLEAR_EVERY} rows so loaded entities do not pile up either.
+ */
+@Component
+public class JsonArrayWriter {
+
+    /** Matches the fetch size hinted on the streaming repository queries. */
+    static final int CLEAR_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+    private final EntityManager entityManager;
+
+    public JsonArrayWriter(ObjectMapper objectMapper, EntityManager entityManager) {
+        this.objectMapper = objectMapper;
+        // Hand the servlet stream one write per filled generator buffer, not one per element
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Writes {@code mapper} applied to every item and returns the number of elements written. The stream is
+     * consumed but not closed.
+     */
+    public <T> long write(Stream<T> items, Function<? super T, ?> mapper, OutputStream out) throws IOException {
+        boolean profiled = RequestProfile.isActive();
+        long serializationNanos = 0;
+        long count = 0;
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // Leave committing to the servlet container: a body that fits its buffer then still gets a Content-Length
+        generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        generator.writeStartArray();
+        Iterator<T> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            Object element = mapper.apply(iterator.next());
+            long start = profiled ? System.nanoTime() : 0;
+            elementWriter.writeValue(generator, element);
+            if (profiled) {
+                serializationNanos += System.nanoTime() - start;
+            }
+            if (++count % CLEAR_EVERY == 0) {
+                entityManager.clear();
+            }
+        }
+        generator.writeEndArray();
+        generator.flush();
+        RequestProfile.recordSerialization(serializationNanos);
+        return count;
+    }
+}
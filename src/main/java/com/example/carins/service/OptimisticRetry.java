@@ -0,0 +1,70 @@
+package com.example.carins.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries writes that lose an optimistic-locking race. Every attempt runs in a new transaction, so it re-reads the
+ * rows and their versions; after {@code maxAttempts} the conflict is rethrown. Only for internal writers whose work is
+ * idempotent when repeated on fresh state - client updates carry an If-Match version and must see the conflict.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transaction;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${app.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${app.optimistic-retry.backoff-ms:20}") long backoffMillis) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> write.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up after {} conflicting attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                log.info("Optimistic-locking conflict on attempt {} of {}, retrying: {}", attempt, maxAttempts, e.getMessage());
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    public void run(Runnable write) {
+        execute(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    /** Random delay growing with the attempt number, so colliding writers do not collide again in lockstep. */
+    private void backOff(int attempt, OptimisticLockingFailureException conflict) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
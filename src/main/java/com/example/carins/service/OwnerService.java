@@ -4,16 +4,32 @@ import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.exception.ValidationException;
 import com.example.carins.model.Car;
 import com.example.carins.model.Owner;
+import com.example.carins.model.TrackedEntity;
 import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.DeletedEntityRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ClaimResponseDto;
 import com.example.carins.web.dto.CreateOwnerDto;
+import com.example.carins.web.dto.InsurancePolicyDto;
+import com.example.carins.web.dto.MultiGetDto;
+import com.example.carins.web.dto.OwnerDto;
+import com.example.carins.web.dto.OwnerPortfolioDto;
+import com.example.carins.web.dto.PortfolioCarDto;
 import com.example.carins.web.dto.UpdateOwnerDto;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @AllArgsConstructor
@@ -22,28 +38,90 @@ public class OwnerService {
 
     private final OwnerRepository ownerRepository;
     private final CarRepository carRepository;
+    private final InsurancePolicyRepository policyRepository;
+    private final ClaimRepository claimRepository;
+    private final UniquenessFilter uniquenessFilter;
+    private final DeletedEntityRepository deletedEntityRepository;
+    private final JsonArrayWriter jsonArrayWriter;
 
+    @Transactional(readOnly = true)
     public List<Owner> listOwners() {
         log.info("Fetching all owners");
         return ownerRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public long writeOwners(OutputStream out) throws IOException {
+        log.info("Streaming all owners");
+        try (Stream<Owner> owners = ownerRepository.streamAll()) {
+            return jsonArrayWriter.write(owners, OwnerDto::from, out);
+        }
+    }
+
     public Owner getOwnerById(Long ownerId) {
         log.info("Fetching owner with id: {}", ownerId);
         return ownerRepository.findById(ownerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id: " + ownerId));
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetDto<OwnerDto> getOwnersByIds(Collection<Long> ownerIds) {
+        log.info("Fetching {} owners by id", ownerIds.size());
+        return IdBatches.load(ownerIds, ownerRepository::findByIdIn, Owner::getId, OwnerDto::from);
+    }
+
+    public OwnerRepository.OwnerStamp getOwnerStamp(Long ownerId) {
+        return ownerRepository.findStampById(ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id: " + ownerId));
+    }
+
+    @Transactional(readOnly = true)
+    public OwnerPortfolioDto getPortfolio(Long ownerId) {
+        log.info("Fetching portfolio for owner with id: {}", ownerId);
+
+        Owner owner = ownerRepository.findById(ownerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id: " + ownerId));
+
+        List<Car> cars = carRepository.findByOwnerId(ownerId);
+        if (cars.isEmpty()) {
+            return new OwnerPortfolioDto(owner.getId(), owner.getName(), owner.getEmail(), List.of());
+        }
+
+        List<Long> carIds = cars.stream().map(Car::getId).toList();
+        Map<Long, List<InsurancePolicyDto>> policiesByCar = policyRepository.findByCarIdInOrderByStartDateAsc(carIds)
+                .stream()
+                .collect(Collectors.groupingBy(policy -> policy.getCar().getId(),
+                        Collectors.mapping(InsurancePolicyDto::from, Collectors.toList())));
+        Map<Long, List<ClaimResponseDto>> claimsByCar = claimRepository.findByCarIdInOrderByClaimDateDesc(carIds)
+                .stream()
+                .collect(Collectors.groupingBy(claim -> claim.getCar().getId(),
+                        Collectors.mapping(ClaimResponseDto::from, Collectors.toList())));
+
+        List<PortfolioCarDto> carDtos = cars.stream()
+                .map(car -> new PortfolioCarDto(
+                        car.getId(),
+                        car.getVin(),
+                        car.getMake(),
+                        car.getModel(),
+                        car.getYearOfManufacture(),
+                        policiesByCar.getOrDefault(car.getId(), List.of()),
+                        claimsByCar.getOrDefault(car.getId(), List.of())))
+                .toList();
+
+        return new OwnerPortfolioDto(owner.getId(), owner.getName(), owner.getEmail(), carDtos);
+    }
+
     @Transactional
     public Owner createOwner(CreateOwnerDto createOwnerDto) {
         log.info("Creating new owner with email: {}", createOwnerDto.email());
 
-        if (ownerRepository.existsByEmail(createOwnerDto.email())) {
+        if (isOwnerEmailTaken(createOwnerDto.email())) {
             throw new ValidationException("Owner with email " + createOwnerDto.email() + " already exists");
         }
         
         Owner owner = new Owner(createOwnerDto.name(), createOwnerDto.email());
         Owner savedOwner = ownerRepository.save(owner);
+        uniquenessFilter.recordOwnerEmail(savedOwner.getEmail());
         
         log.info("Successfully created owner with id: {}", savedOwner.getId());
         return savedOwner;
@@ -57,10 +135,11 @@ public class OwnerService {
                 .orElseThrow(() -> new ResourceNotFoundException("Owner not found with id: " + ownerId));
 
         if (updateOwnerDto.email() != null && !updateOwnerDto.email().equals(owner.getEmail())) {
-            if (ownerRepository.existsByEmail(updateOwnerDto.email())) {
+            if (isOwnerEmailTaken(updateOwnerDto.email())) {
                 throw new ValidationException("Owner with email " + updateOwnerDto.email() + " already exists");
             }
             owner.setEmail(updateOwnerDto.email());
+            uniquenessFilter.recordOwnerEmail(updateOwnerDto.email());
         }
 
         if (updateOwnerDto.name() != null) {
@@ -86,6 +165,11 @@ public class OwnerService {
         }
         
         ownerRepository.delete(owner);
+        deletedEntityRepository.recordDeletions(TrackedEntity.OWNER, List.of(ownerId));
         log.info("Successfully deleted owner with id: {}", ownerId);
     }
+
+    private boolean isOwnerEmailTaken(String email) {
+        return uniquenessFilter.mightContainOwnerEmail(email) && ownerRepository.existsByEmail(email);
+    }
 }
@@ -0,0 +1,109 @@
+package com.example.carins.service;
+
+import com.example.carins.config.RequestProfile;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent reads concurrently, each on its own virtual thread inside its own read-only
+ * transaction (and therefore its own connection). Reads do not see uncommitted changes of the
+ * calling transaction. When disabled, reads run inline on the caller's thread.
+ * <p>
+ * Callers should not hold a transaction of their own while the reads run, or each request ties up
+ * one connection more than it uses; {@link #readGroup} opens a single read-only transaction only
+ * for the sequential case.
+ */
+@Component
+public class ParallelReadExecutor {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor;
+    private final boolean enabled;
+
+    @Autowired
+    public ParallelReadExecutor(PlatformTransactionManager transactionManager,
+                                @Value("${app.history.parallel-fetch:false}") boolean enabled) {
+        this.enabled = enabled && transactionManager != null;
+        this.executor = this.enabled ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        if (transactionManager != null) {
+            this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+            this.readOnlyTransaction.setReadOnly(true);
+        } else {
+            this.readOnlyTransaction = null;
+        }
+    }
+
+    public static ParallelReadExecutor sequential() {
+        return new ParallelReadExecutor(null, false);
+    }
+
+    /**
+     * Runs a group of {@link #submit} reads and whatever combines them: without a surrounding
+     * transaction when they run concurrently, in one read-only transaction when they run inline.
+     */
+    public <T> T readGroup(Supplier<T> reads) {
+        if (enabled || readOnlyTransaction == null) {
+            return reads.get();
+        }
+        return readOnlyTransaction.execute(status -> reads.get());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> read) {
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(read.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        Supplier<T> profiledRead = withRequestAttributes(RequestProfile.propagate(read));
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> profiledRead.get()), executor);
+    }
+
+    /** Carries the caller's request attributes over, so request-scoped lookups such as the metrics route work. */
+    private static <T> Supplier<T> withRequestAttributes(Supplier<T> task) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return task;
+        }
+        return () -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                return task.get();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        };
+    }
+
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+}
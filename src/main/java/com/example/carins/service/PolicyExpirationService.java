@@ -7,6 +7,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -16,7 +17,7 @@ import java.util.Set;
 public class PolicyExpirationService {
 
     private final InsurancePolicyRepository policyRepository;
-    private final Set<Long> alreadyLoggedPolicies = new HashSet<>();
+    private final Set<Long> alreadyLoggedPolicies = Collections.synchronizedSet(new HashSet<>());
 
     public PolicyExpirationService(InsurancePolicyRepository policyRepository) {
         this.policyRepository = policyRepository;
@@ -30,12 +31,11 @@ public class PolicyExpirationService {
         List<InsurancePolicy> expiredPolicies = policyRepository.findPoliciesExpiringOnDate(today);
 
         for (InsurancePolicy policy : expiredPolicies) {
-            if (!alreadyLoggedPolicies.contains(policy.getId())) {
+            if (alreadyLoggedPolicies.add(policy.getId())) {
                 log.info("Policy {} for car {} expired on {}",
                         policy.getId(),
                         policy.getCar().getId(),
                         policy.getEndDate());
-                alreadyLoggedPolicies.add(policy.getId());
             }
         }
 
@@ -0,0 +1,283 @@
+package com.example.carins.service;
+
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.ProviderDailyStats;
+import com.example.carins.model.ProviderStatsDelta;
+import com.example.carins.model.ProviderStatsRange;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.ProviderDailyStatsRepository;
+import com.example.carins.repo.ProviderStatsDeltaRepository;
+import com.example.carins.repo.ProviderStatsRangeRepository;
+import com.example.carins.web.dto.ProviderStatsRebuildDto;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToLongFunction;
+
+/**
+ * Daily per-provider policy histogram behind the provider reports: a policy adds one to every day it is active and to
+ * the days it starts and ends. Policy writes do not touch the daily rows; they append a {@link ProviderStatsDelta} in
+ * the policy's transaction, so concurrent writers never wait on each other and the reports, which add pending deltas
+ * on read, are exact as soon as they commit. {@link #fold()} moves pending deltas into the daily rows every minute so
+ * reports only add up recent writes. {@link #rebuild()} recomputes the rows from the policies, one provider per task
+ * in parallel; it runs at startup when the histogram is empty, nightly, and repairs writes that bypassed the services.
+ * Policies without a provider or end date are not counted.
+ *
+ * <p>Folding and rebuilding a provider both hold its {@link ProviderStatsRange} row, taken without waiting: whoever
+ * finds it held, here or on another instance, skips the provider until its next run.
+ */
+@Slf4j
+@Component
+public class ProviderHistogram {
+
+    static final int FLUSH_EVERY = 500;
+
+    private final InsurancePolicyRepository policyRepository;
+    private final ProviderDailyStatsRepository statsRepository;
+    private final ProviderStatsRangeRepository rangeRepository;
+    private final ProviderStatsDeltaRepository deltaRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate rebuildTransaction;
+    private final int rebuildThreads;
+
+    public ProviderHistogram(InsurancePolicyRepository policyRepository,
+                             ProviderDailyStatsRepository statsRepository,
+                             ProviderStatsRangeRepository rangeRepository,
+                             ProviderStatsDeltaRepository deltaRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.provider-stats.rebuild-threads:4}") int rebuildThreads) {
+        this.policyRepository = policyRepository;
+        this.statsRepository = statsRepository;
+        this.rangeRepository = rangeRepository;
+        this.deltaRepository = deltaRepository;
+        this.entityManager = entityManager;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.rebuildThreads = Math.max(1, rebuildThreads);
+    }
+
+    /** What of a policy the histogram counts; capture it before changing the policy. */
+    public record Span(String provider, LocalDate startDate, LocalDate endDate) {
+
+        public static Span of(InsurancePolicy policy) {
+            return new Span(policy.getProvider(), policy.getStartDate(), policy.getEndDate());
+        }
+
+        boolean counted() {
+            return provider != null && startDate != null && endDate != null && !endDate.isBefore(startDate);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Span span) {
+        apply(span, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Span span) {
+        apply(span, -1);
+    }
+
+    /** Moves a policy from {@code before} to its current state; a no-op when nothing counted changed. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void update(Span before, InsurancePolicy policy) {
+        Span after = Span.of(policy);
+        if (!before.equals(after)) {
+            apply(before, -1);
+            apply(after, 1);
+        }
+    }
+
+    private void apply(Span span, int delta) {
+        if (span.counted()) {
+            entityManager.persist(new ProviderStatsDelta(span.provider(), span.startDate(), span.endDate(), delta));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (rangeRepository.count() > 0) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Initial provider histogram build failed; reports stay empty until the next rebuild", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.provider-stats.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /** Adds the pending deltas to the daily rows and deletes them, provider by provider. */
+    @Scheduled(fixedDelayString = "${app.provider-stats.fold-interval-ms:60000}",
+            initialDelayString = "${app.provider-stats.fold-interval-ms:60000}")
+    public void fold() {
+        List<String> providers = deltaRepository.findAllProviders();
+        long folded = 0;
+        for (String provider : providers) {
+            folded += withProviderLocked(provider, this::foldProvider);
+        }
+        if (folded > 0) {
+            log.debug("Folded {} provider histogram deltas for {} providers", folded, providers.size());
+        }
+    }
+
+    /**
+     * Recomputes every provider, {@code rebuildThreads} at a time. Each runs in a repeatable-read transaction, so the
+     * deltas it deletes are exactly those of the policies it counted, and deltas committed meanwhile stay pending.
+     */
+    public ProviderStatsRebuildDto rebuild() {
+        long start = System.nanoTime();
+        Set<String> providers = new TreeSet<>(policyRepository.findAllProviders());
+        rangeRepository.findAll().forEach(range -> providers.add(range.getProvider()));
+        providers.addAll(deltaRepository.findAllProviders());
+        log.info("Rebuilding provider histogram for {} providers on {} threads", providers.size(), rebuildThreads);
+
+        List<CompletableFuture<Long>> rebuilds = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads,
+                Thread.ofVirtual().name("provider-histogram-", 0).factory())) {
+            for (String provider : providers) {
+                rebuilds.add(CompletableFuture.supplyAsync(
+                        () -> withProviderLocked(provider, this::rebuildProvider), executor));
+            }
+        }
+        long policies = rebuilds.stream().mapToLong(ParallelReadExecutor::await).sum();
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Rebuilt provider histogram: {} providers, {} policies in {} ms", providers.size(), policies, durationMs);
+        return new ProviderStatsRebuildDto(providers.size(), policies, durationMs);
+    }
+
+    /** Runs {@code work} in a repeatable-read transaction holding the provider's range row; 0 if it is held elsewhere. */
+    private long withProviderLocked(String provider, ToLongFunction<ProviderStatsRange> work) {
+        createRangeIfMissing(provider);
+        Long result = rebuildTransaction.execute(status -> rangeRepository.tryLock(provider)
+                .map(work::applyAsLong)
+                .orElseGet(() -> {
+                    log.info("Provider histogram for {} is being rebuilt or folded elsewhere; skipped", provider);
+                    return 0L;
+                }));
+        return result != null ? result : 0;
+    }
+
+    /**
+     * Creates the range row with a single zero day in its own transaction, so that two instances racing on a new
+     * provider just find each other's row instead of failing on the primary key.
+     */
+    private void createRangeIfMissing(String provider) {
+        if (rangeRepository.existsById(provider)) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                entityManager.persist(new ProviderStatsRange(provider, today, today));
+                entityManager.persist(new ProviderDailyStats(provider, today, 0, 0, 0));
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Histogram for provider {} was created concurrently", provider);
+        }
+    }
+
+    private long foldProvider(ProviderStatsRange range) {
+        List<ProviderStatsDelta> deltas = deltaRepository.findByProvider(range.getProvider());
+        Map<Span, Integer> net = new HashMap<>();
+        deltas.forEach(delta -> net.merge(new Span(delta.getProvider(), delta.getStartDate(), delta.getEndDate()),
+                delta.getDelta(), Integer::sum));
+        net.forEach((span, delta) -> {
+            if (delta != 0) {
+                cover(range, span.startDate(), span.endDate());
+                statsRepository.addActive(span.provider(), span.startDate(), span.endDate(), delta);
+                statsRepository.addStarted(span.provider(), span.startDate(), delta);
+                statsRepository.addEnded(span.provider(), span.endDate(), delta);
+            }
+        });
+        deltaRepository.deleteAllInBatch(deltas);
+        return deltas.size();
+    }
+
+    /** Adds zero rows so the range has a row for every day from {@code from} to {@code to}. */
+    private void cover(ProviderStatsRange range, LocalDate from, LocalDate to) {
+        String provider = range.getProvider();
+        for (LocalDate day = from; day.isBefore(range.getFirstDate()); day = day.plusDays(1)) {
+            entityManager.persist(new ProviderDailyStats(provider, day, 0, 0, 0));
+        }
+        for (LocalDate day = range.getLastDate().plusDays(1); !day.isAfter(to); day = day.plusDays(1)) {
+            entityManager.persist(new ProviderDailyStats(provider, day, 0, 0, 0));
+        }
+        if (from.isBefore(range.getFirstDate())) {
+            range.setFirstDate(from);
+        }
+        if (to.isAfter(range.getLastDate())) {
+            range.setLastDate(to);
+        }
+    }
+
+    private long rebuildProvider(ProviderStatsRange range) {
+        String provider = range.getProvider();
+        deltaRepository.deleteByProvider(provider);
+        statsRepository.deleteByProvider(provider);
+
+        Map<LocalDate, Long> starts = new HashMap<>();
+        policyRepository.countStartsByProvider(provider).forEach(day -> starts.put(day.getDate(), day.getPolicies()));
+        Map<LocalDate, Long> ends = new HashMap<>();
+        policyRepository.countEndsByProvider(provider).forEach(day -> ends.put(day.getDate(), day.getPolicies()));
+        if (starts.isEmpty()) {
+            rangeRepository.delete(range);
+            return 0;
+        }
+
+        LocalDate first = starts.keySet().stream().min(LocalDate::compareTo).orElseThrow();
+        LocalDate last = ends.keySet().stream().max(LocalDate::compareTo).orElseThrow();
+        range.setFirstDate(first);
+        range.setLastDate(last);
+        entityManager.flush();
+
+        long active = 0;
+        long policies = 0;
+        int pending = 0;
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            long started = starts.getOrDefault(day, 0L);
+            long ended = ends.getOrDefault(day, 0L);
+            active += started;
+            policies += started;
+            entityManager.persist(new ProviderDailyStats(provider, day, (int) active, (int) started, (int) ended));
+            active -= ended;
+            if (++pending == FLUSH_EVERY) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        return policies;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import com.example.carins.repo.ProviderDailyStatsRepository;
+import com.example.carins.repo.ProviderStatsDeltaRepository;
+import com.example.carins.web.dto.ProviderActiveCountsDto;
+import com.example.carins.web.dto.ProviderFlowDto;
+import com.example.carins.web.dto.ProviderMonthDto;
+import com.example.carins.web.dto.ProviderShareDto;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Provider reports read from the {@link ProviderHistogram}: a day's active counts are one row per provider, a month's
+ * flows one sum over at most 31 rows per provider, however many policies there are. Policy changes not yet folded in
+ * by a rebuild are added on top from the pending deltas.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+@Transactional(readOnly = true)
+public class ProviderReportService {
+
+    public static final int MAX_DATES = 366;
+    public static final int MAX_MONTHS = 120;
+
+    private static final Comparator<Map.Entry<String, Integer>> MOST_ACTIVE_FIRST =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final ProviderDailyStatsRepository statsRepository;
+    private final ProviderStatsDeltaRepository deltaRepository;
+
+    public List<ProviderActiveCountsDto> getActiveCounts(Collection<LocalDate> dates) {
+        TreeSet<LocalDate> days = new TreeSet<>(dates);
+        if (days.isEmpty() || days.size() > MAX_DATES) {
+            throw new ValidationException("dates must name between 1 and " + MAX_DATES + " days");
+        }
+        log.info("Reporting active policies per provider on {} days", days.size());
+
+        Map<LocalDate, Map<String, Integer>> byDay = new LinkedHashMap<>();
+        days.forEach(day -> byDay.put(day, new HashMap<>()));
+        statsRepository.findActiveOn(days).forEach(count ->
+                byDay.get(count.getDate()).put(count.getProvider(), count.getActive()));
+        deltaRepository.findPending(days.first(), days.last()).forEach(span ->
+                days.subSet(span.getStartDate(), true, span.getEndDate(), true).forEach(day ->
+                        byDay.get(day).merge(span.getProvider(), (int) span.getDelta(), Integer::sum)));
+
+        return byDay.entrySet().stream()
+                .map(day -> {
+                    List<Map.Entry<String, Integer>> counts = day.getValue().entrySet().stream()
+                            .filter(count -> count.getValue() > 0)
+                            .sorted(MOST_ACTIVE_FIRST)
+                            .toList();
+                    int total = counts.stream().mapToInt(Map.Entry::getValue).sum();
+                    List<ProviderShareDto> providers = counts.stream()
+                            .map(count -> new ProviderShareDto(count.getKey(), count.getValue(),
+                                    share(count.getValue(), total)))
+                            .toList();
+                    return new ProviderActiveCountsDto(day.getKey(), total, providers);
+                })
+                .toList();
+    }
+
+    public List<ProviderMonthDto> getMonthlyFlows(YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("from must not be after to");
+        }
+        if (from.plusMonths(MAX_MONTHS).isBefore(to.plusMonths(1))) {
+            throw new ValidationException("At most " + MAX_MONTHS + " months can be reported at once");
+        }
+        log.info("Reporting new and expired policies per provider from {} to {}", from, to);
+
+        Map<YearMonth, Map<String, ProviderFlowDto>> byMonth = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            byMonth.put(month, new TreeMap<>());
+        }
+        LocalDate first = from.atDay(1);
+        LocalDate last = to.atEndOfMonth();
+        statsRepository.findMonthlyFlows(first, last).forEach(flow ->
+                addFlow(byMonth, YearMonth.of(flow.getYear(), flow.getMonth()),
+                        new ProviderFlowDto(flow.getProvider(), flow.getStarted(), flow.getEnded())));
+        deltaRepository.findPending(first, last).forEach(span -> {
+            if (!span.getStartDate().isBefore(first)) {
+                addFlow(byMonth, YearMonth.from(span.getStartDate()),
+                        new ProviderFlowDto(span.getProvider(), span.getDelta(), 0));
+            }
+            if (!span.getEndDate().isAfter(last)) {
+                addFlow(byMonth, YearMonth.from(span.getEndDate()),
+                        new ProviderFlowDto(span.getProvider(), 0, span.getDelta()));
+            }
+        });
+
+        return byMonth.entrySet().stream()
+                .map(month -> new ProviderMonthDto(month.getKey(), month.getValue().values().stream()
+                        .filter(flow -> flow.newPolicies() > 0 || flow.expiredPolicies() > 0)
+                        .toList()))
+                .toList();
+    }
+
+    private static void addFlow(Map<YearMonth, Map<String, ProviderFlowDto>> byMonth, YearMonth month,
+                                ProviderFlowDto flow) {
+        byMonth.get(month).merge(flow.provider(), flow, (a, b) -> new ProviderFlowDto(a.provider(),
+                a.newPolicies() + b.newPolicies(), a.expiredPolicies() + b.expiredPolicies()));
+    }
+
+    static double share(int active, int total) {
+        return total == 0 ? 0 : Math.round(active * 10_000.0 / total) / 10_000.0;
+    }
+}
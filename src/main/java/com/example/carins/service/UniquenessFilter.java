@@ -0,0 +1,94 @@
+package com.example.carins.service;
+
+import com.example.carins.model.User;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.UserIdentity;
+import com.example.carins.repo.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefilter for uniqueness checks on usernames and emails. A negative answer lets
+ * callers skip the database lookup; unique constraints in the database remain authoritative.
+ * Until the initial load has finished every value is reported as possibly taken.
+ */
+@Slf4j
+@Component
+public class UniquenessFilter {
+
+    private static final String USERNAME = "user.username:";
+    private static final String USER_EMAIL = "user.email:";
+    private static final String OWNER_EMAIL = "owner.email:";
+
+    private final UserRepository userRepository;
+    private final OwnerRepository ownerRepository;
+    private final BloomFilter filter;
+    private volatile boolean loaded;
+
+    public UniquenessFilter(UserRepository userRepository,
+                            OwnerRepository ownerRepository,
+                            @Value("${app.uniqueness.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${app.uniqueness.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.ownerRepository = ownerRepository;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        log.info("Loading uniqueness prefilter");
+        long count = 0;
+
+        try (Stream<UserIdentity> users = userRepository.streamAllIdentities()) {
+            for (UserIdentity user : (Iterable<UserIdentity>) users::iterator) {
+                filter.put(USERNAME + user.username());
+                filter.put(USER_EMAIL + user.email());
+                count++;
+            }
+        }
+
+        try (Stream<String> emails = ownerRepository.streamAllEmails()) {
+            for (String email : (Iterable<String>) emails::iterator) {
+                filter.put(OWNER_EMAIL + email);
+                count++;
+            }
+        }
+
+        loaded = true;
+        log.info("Uniqueness prefilter loaded with {} entries", count);
+    }
+
+    public boolean mightContainUsername(String username) {
+        return mightContain(USERNAME, username);
+    }
+
+    public boolean mightContainUserEmail(String email) {
+        return mightContain(USER_EMAIL, email);
+    }
+
+    public boolean mightContainOwnerEmail(String email) {
+        return mightContain(OWNER_EMAIL, email);
+    }
+
+    public void recordUser(User user) {
+        filter.put(USERNAME + user.getUsername());
+        filter.put(USER_EMAIL + user.getEmail());
+    }
+
+    public void recordOwnerEmail(String email) {
+        if (email != null) {
+            filter.put(OWNER_EMAIL + email);
+        }
+    }
+
+    private boolean mightContain(String namespace, String value) {
+        return !loaded || value == null || filter.mightContain(namespace + value);
+    }
+}
@@ -3,11 +3,13 @@ package com.example.carins.service;
 import com.example.carins.exception.AuthenticationException;
 import com.example.carins.exception.UserAlreadyExistsException;
 import com.example.carins.model.User;
+import com.example.carins.repo.UserIdentity;
 import com.example.carins.repo.UserRepository;
 import com.example.carins.web.dto.LoginDto;
 import com.example.carins.web.dto.RegisterDto;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,6 +18,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @Transactional
@@ -25,18 +29,12 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private AuthenticationManager authenticationManager;
-
+    private final UniquenessFilter uniquenessFilter;
 
     public User register(RegisterDto registerDto) {
         log.info("Attempting to register user: {}", registerDto.username());
 
-        if (userRepository.existsByUsername(registerDto.username())) {
-            throw new UserAlreadyExistsException("Username already exists: " + registerDto.username());
-        }
-
-        if (userRepository.existsByEmail(registerDto.email())) {
-            throw new UserAlreadyExistsException("Email already exists: " + registerDto.email());
-        }
+        ensureUnique(registerDto.username(), registerDto.email());
 
         User user = new User(
                 registerDto.username(),
@@ -45,11 +43,39 @@ public class UserService {
                 User.Role.USER
         );
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Unique constraint rejected registration for user: {}", registerDto.username());
+            throw new UserAlreadyExistsException("Username or email already exists: " + registerDto.username());
+        }
+
+        uniquenessFilter.recordUser(savedUser);
         log.info("Successfully registered user: {}", savedUser.getUsername());
         return savedUser;
     }
 
+    private void ensureUnique(String username, String email) {
+        boolean usernameMaybeTaken = uniquenessFilter.mightContainUsername(username);
+        boolean emailMaybeTaken = uniquenessFilter.mightContainUserEmail(email);
+
+        if (!usernameMaybeTaken && !emailMaybeTaken) {
+            log.debug("Uniqueness prefilter cleared user: {}", username);
+            return;
+        }
+
+        List<UserIdentity> conflicts = userRepository.findIdentitiesByUsernameOrEmail(username, email);
+
+        if (conflicts.stream().anyMatch(conflict -> username.equals(conflict.username()))) {
+            throw new UserAlreadyExistsException("Username already exists: " + username);
+        }
+
+        if (conflicts.stream().anyMatch(conflict -> email.equals(conflict.email()))) {
+            throw new UserAlreadyExistsException("Email already exists: " + email);
+        }
+    }
+
     public User login(LoginDto loginDto) {
         log.info("Attempting to login user: {}", loginDto.username());
 
@@ -1,26 +1,45 @@
 package com.example.carins.web;
 
+import com.example.carins.exception.ValidationException;
 import com.example.carins.model.Car;
+import com.example.carins.service.CarSearchService;
 import com.example.carins.service.CarService;
 import com.example.carins.service.ClaimService;
+import com.example.carins.service.FieldCatalog;
+import com.example.carins.service.FieldProjectionService;
+import com.example.carins.service.FieldSelection;
 import com.example.carins.web.dto.CarDto;
 import com.example.carins.web.dto.CarHistoryDto;
+import com.example.carins.web.dto.CarPageDto;
+import com.example.carins.web.dto.CarSearchCriteria;
 import com.example.carins.web.dto.ClaimCreateDto;
 import com.example.carins.web.dto.ClaimResponseDto;
 import com.example.carins.web.dto.CreateCarDto;
+import com.example.carins.web.dto.MultiGetDto;
 import com.example.carins.web.dto.UpdateCarDto;
+import com.example.carins.web.dto.VinMatchDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -33,13 +52,90 @@ public class CarController {
 
     private final CarService carService;
     private final ClaimService claimService;
+    private final FieldProjectionService fieldProjectionService;
+    private final CarSearchService carSearchService;
 
     @GetMapping("/cars")
-    @Operation(summary = "Get all cars", description = "Retrieve a list of all cars in the system")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of cars")
-    public List<CarDto> getCars() {
+    @StreamedResponse
+    @Operation(summary = "Get all cars", description = "Retrieve a list of all cars in the system, written while it is read")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of cars",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = CarDto.class))))
+    public void getCars(
+            @Parameter(description = "Comma-separated fields to return, e.g. id,vin or owner.name; naming an object "
+                    + "returns all of its fields") @RequestParam(required = false) String fields,
+            HttpServletResponse response) throws IOException {
         log.info("Fetching all cars");
-        return carService.listCars().stream().map(this::toDto).toList();
+        FieldSelection selection = fields != null ? FieldSelection.parse(FieldCatalog.CARS, fields) : null;
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (selection != null) {
+            fieldProjectionService.writeAll(selection, response.getOutputStream());
+        } else {
+            carService.writeCars(response.getOutputStream());
+        }
+    }
+
+    @GetMapping(value = "/cars", params = "ids")
+    @Operation(summary = "Get cars by ids", description = "Retrieve several cars in one call; ids that do not exist "
+            + "are listed in missingIds instead of failing the request")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Found cars and missing ids"),
+        @ApiResponse(responseCode = "400", description = "No ids, more than 1000 ids, or combined with fields")
+    })
+    public ResponseEntity<MultiGetDto<CarDto>> getCarsByIds(
+            @Parameter(description = "Comma-separated ids, e.g. 1,2,3", required = true) @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        log.info("Fetching {} cars by id", ids.size());
+        if (fields != null) {
+            throw new ValidationException("fields cannot be combined with ids");
+        }
+        return ResponseEntity.ok(carService.getCarsByIds(ids));
+    }
+
+    @GetMapping("/cars/search")
+    @Operation(summary = "Search cars", description = "Find cars matching all given filters, ordered by id. Start "
+            + "without after, then pass nextAfter back as after; keep paging while hasMore is true.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of matching cars"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter or limit")
+    })
+    public CarPageDto searchCars(
+            @Parameter(description = "Exact make, e.g. Dacia") @RequestParam(required = false) String make,
+            @Parameter(description = "Exact model, e.g. Logan") @RequestParam(required = false) String model,
+            @Parameter(description = "Earliest year of manufacture") @RequestParam(required = false) Integer minYear,
+            @Parameter(description = "Latest year of manufacture") @RequestParam(required = false) Integer maxYear,
+            @Parameter(description = "Owner ID") @RequestParam(required = false) Long ownerId,
+            @Parameter(description = "Only cars with a policy active on this date (YYYY-MM-DD)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate activePolicyOn,
+            @Parameter(description = "nextAfter of the previous page; omit for the first page")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of cars (1-" + CarSearchService.MAX_LIMIT + ")")
+            @RequestParam(defaultValue = "50") int limit) {
+        CarSearchCriteria criteria = new CarSearchCriteria(make, model, minYear, maxYear, ownerId, activePolicyOn);
+        log.info("Searching cars by {}", criteria);
+        return carSearchService.search(criteria, after, limit);
+    }
+
+    @GetMapping("/cars/vin-search")
+    @Operation(summary = "Look up cars by partial or mistyped VIN", description = "With maxErrors 0, returns cars whose "
+            + "VIN starts with the typed characters, in VIN order. With maxErrors 1 or 2, returns cars whose whole VIN "
+            + "differs from the typed one by at most that many characters, closest first.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching cars"),
+        @ApiResponse(responseCode = "400", description = "VIN too short or not alphanumeric, or invalid maxErrors or limit")
+    })
+    public List<VinMatchDto> searchByVin(
+            @Parameter(description = "Typed VIN: at least 3 characters for prefix lookup, 5 for fuzzy lookup",
+                    required = true) @RequestParam String vin,
+            @Parameter(description = "Typing errors to tolerate (0-" + CarSearchService.MAX_VIN_ERRORS + ")")
+            @RequestParam(defaultValue = "0") int maxErrors,
+            @Parameter(description = "Maximum number of cars (1-" + CarSearchService.MAX_VIN_MATCHES + ")")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Looking up cars by VIN {} with up to {} errors", vin, maxErrors);
+        return maxErrors == 0
+                ? carSearchService.findByVinPrefix(vin, limit)
+                : carSearchService.findByVinFuzzy(vin, maxErrors, limit);
     }
 
     @PostMapping("/cars")
@@ -54,7 +150,7 @@ public class CarController {
         log.info("Creating new car with VIN: {}", createCarDto.vin());
         
         Car createdCar = carService.createCar(createCarDto);
-        CarDto carDto = toDto(createdCar);
+        CarDto carDto = CarDto.from(createdCar);
         
         URI location = URI.create("/api/cars/" + createdCar.getId());
         return ResponseEntity.created(location).body(carDto);
@@ -63,15 +159,36 @@ public class CarController {
     @GetMapping("/cars/{carId}")
     @Operation(summary = "Get car by ID", description = "Retrieve a specific car by its ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved car"),
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved car",
+                content = @Content(schema = @Schema(implementation = CarDto.class))),
+        @ApiResponse(responseCode = "304", description = "Cached copy is still current"),
+        @ApiResponse(responseCode = "400", description = "Unknown field"),
         @ApiResponse(responseCode = "404", description = "Car not found")
     })
-    public ResponseEntity<CarDto> getCarById(
-            @Parameter(description = "Car ID", required = true) @PathVariable Long carId) {
+    public ResponseEntity<?> getCarById(
+            @Parameter(description = "Car ID", required = true) @PathVariable Long carId,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,vin or owner.name; naming an object "
+                    + "returns all of its fields") @RequestParam(required = false) String fields,
+            @Parameter(description = "ETag of a cached copy; answered with 304 if still current")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching car with id: {}", carId);
         
+        if (fields != null) {
+            FieldSelection selection = FieldSelection.parse(FieldCatalog.CARS, fields);
+            String current = ETags.forFields(ETags.forCar(carService.getCarStamp(carId)), selection);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+            return ResponseEntity.ok().eTag(current).body(fieldProjectionService.getById(selection, carId));
+        }
+        if (ifNoneMatch != null) {
+            String current = ETags.forCar(carService.getCarStamp(carId));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
         Car car = carService.getCarById(carId);
-        return ResponseEntity.ok(toDto(car));
+        return ResponseEntity.ok().eTag(ETags.forCar(car)).body(CarDto.from(car));
     }
 
     @PutMapping("/cars/{carId}")
@@ -79,15 +196,19 @@ public class CarController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Car updated successfully"),
         @ApiResponse(responseCode = "404", description = "Car or owner not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid car data or VIN already exists")
+        @ApiResponse(responseCode = "400", description = "Invalid car data or VIN already exists"),
+        @ApiResponse(responseCode = "409", description = "Car was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag")
     })
     public ResponseEntity<CarDto> updateCar(
             @Parameter(description = "Car ID", required = true) @PathVariable Long carId,
+            @Parameter(description = "ETag from GET; the update is rejected if the car changed since")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated car details", required = true) @Valid @RequestBody UpdateCarDto updateCarDto) {
         log.info("Updating car with id: {}", carId);
         
-        Car updatedCar = carService.updateCar(carId, updateCarDto);
-        return ResponseEntity.ok(toDto(updatedCar));
+        Car updatedCar = carService.updateCar(carId, updateCarDto, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forCar(updatedCar)).body(CarDto.from(updatedCar));
     }
 
     @DeleteMapping("/cars/{carId}")
@@ -139,23 +260,27 @@ public class CarController {
     }
 
     @GetMapping("/cars/{carId}/claims")
-    public List<ClaimResponseDto> getClaimsByCarId(@PathVariable Long carId) {
+    @StreamedResponse
+    public void getClaimsByCarId(@PathVariable Long carId, HttpServletResponse response) throws IOException {
         log.info("Fetching claims for car: {}", carId);
-        return claimService.getClaimsByCarId(carId);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        claimService.writeClaimsByCarId(carId, response.getOutputStream());
     }
 
     @GetMapping("/cars/{carId}/history")
-    public ResponseEntity<CarHistoryDto> getCarHistory(@PathVariable Long carId) {
+    public ResponseEntity<CarHistoryDto> getCarHistory(
+            @PathVariable Long carId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching history for car: {}", carId);
 
+        // Read before the history itself: if it changes in between, the tag is older than the body and the
+        // client merely re-fetches once more, it never keeps a stale copy.
+        String eTag = ETags.forHistory(carService.getCarHistoryStamp(carId));
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         CarHistoryDto history = carService.getCarHistory(carId);
-        return ResponseEntity.ok(history);
-    }
-
-    private CarDto toDto(Car c) {
-        var o = c.getOwner();
-        var ownerDto = o != null ? new CarDto.OwnerDto(o.getId(), o.getName(), o.getEmail()) : null;
-        return new CarDto(c.getId(), c.getVin(), c.getMake(), c.getModel(), c.getYearOfManufacture(), ownerDto);
+        return ResponseEntity.ok().eTag(eTag).body(history);
     }
 
     public record InsuranceValidityResponse(Long carId, String date, boolean valid) {
@@ -0,0 +1,39 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ChangeFeedService;
+import com.example.carins.web.dto.ChangeFeedDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Change Feed", description = "Incremental sync of owners, cars, policies and claims")
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get changes since a token",
+            description = "Returns writes and deletes in timestamp order after the given token. Start without a token, "
+                    + "then pass nextToken back as since; keep paging while hasMore is true.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of changes"),
+        @ApiResponse(responseCode = "400", description = "Invalid token or limit")
+    })
+    public ChangeFeedDto getChanges(
+            @Parameter(description = "nextToken of the previous page; omit to start from the beginning")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of changes (1-" + ChangeFeedService.MAX_LIMIT + ")")
+            @RequestParam(defaultValue = "100") int limit) {
+        log.info("Fetching change feed page, limit {}", limit);
+        return changeFeedService.getChanges(since, limit);
+    }
+}
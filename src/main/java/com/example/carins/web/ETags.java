@@ -0,0 +1,119 @@
+package com.example.carins.web;
+
+import com.example.carins.exception.PreconditionFailedException;
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.FieldSelection;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETags built from what a representation depends on, e.g. {@code "3-1718000000123456"} for a car at version 3
+ * whose owner was last written at that microsecond. For versioned entities the leading number is the entity's own
+ * {@code @Version}, which is what {@code If-Match} is checked against.
+ *
+ * <p>Each tag can be computed from the loaded entity or from the matching lightweight stamp query, and both must
+ * agree, so a conditional GET can be answered without loading the aggregate.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String forCar(Car car) {
+        return of(car.getVersion(), car.getOwner().getUpdatedAt());
+    }
+
+    static String forCar(CarRepository.CarStamp stamp) {
+        return of(stamp.getVersion(), stamp.getOwnerUpdatedAt());
+    }
+
+    static String forOwner(Owner owner) {
+        return of(owner.getUpdatedAt());
+    }
+
+    static String forOwner(OwnerRepository.OwnerStamp stamp) {
+        return of(stamp.getUpdatedAt());
+    }
+
+    static String forPolicy(InsurancePolicy policy) {
+        Car car = policy.getCar();
+        return of(policy.getVersion(), car.getVersion(), car.getOwner().getUpdatedAt());
+    }
+
+    static String forPolicy(InsurancePolicyRepository.PolicyStamp stamp) {
+        return of(stamp.getVersion(), stamp.getCarVersion(), stamp.getOwnerUpdatedAt());
+    }
+
+    static String forHistory(CarRepository.HistoryStamp stamp) {
+        return of(stamp.getCarVersion(), stamp.getPolicyCount(), stamp.getPoliciesUpdatedAt(),
+                stamp.getClaimCount(), stamp.getClaimsUpdatedAt());
+    }
+
+    /** A {@code fields=} response is a representation of its own, so its tag also names the selection. */
+    static String forFields(String eTag, FieldSelection fields) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + fields.fingerprint() + "\"";
+    }
+
+    /** Weak comparison as required for {@code If-None-Match}: {@code *} or any listed tag, ignoring {@code W/}. */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header asks for, or {@code null} when the update is unconditional (no header
+     * or {@code *}). Anything that cannot equal one of our tags fails the precondition.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match must be a single strong ETag as returned by GET, e.g. \"3\"");
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int separator = value.indexOf('-');
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match " + tag + " does not match the current version");
+        }
+    }
+
+    private static String of(Object... parts) {
+        return Arrays.stream(parts)
+                .map(ETags::part)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    private static String part(Object value) {
+        if (value == null) {
+            return "0";
+        }
+        if (value instanceof LocalDateTime timestamp) {
+            long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+            return Long.toString(seconds * 1_000_000 + timestamp.getNano() / 1_000);
+        }
+        return value.toString();
+    }
+}
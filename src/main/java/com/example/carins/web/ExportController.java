@@ -0,0 +1,117 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ExportDataset;
+import com.example.carins.service.ExportFormat;
+import com.example.carins.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports run as a {@link WebAsyncTask} with their own timeout, so the long limit a bulk load needs does not become
+ * the default for every async request.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Data Export", description = "Streaming bulk exports for data warehouse loads")
+public class ExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final ExportService exportService;
+    private final long timeoutMs;
+
+    public ExportController(ExportService exportService, @Value("${app.export.timeout-ms:3600000}") long timeoutMs) {
+        this.exportService = exportService;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @GetMapping("/{dataset}")
+    @StreamedResponse
+    @Operation(summary = "Export a dataset",
+            description = "Streams policies, claims or cars as CSV or NDJSON in id order, gzip-compressed when the client "
+                    + "accepts it. Pass the last exported id as afterId and/or updatedSince for incremental loads.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export stream"),
+        @ApiResponse(responseCode = "400", description = "Unknown dataset or format")
+    })
+    public WebAsyncTask<Void> export(
+            @Parameter(description = "policies, claims or cars", required = true) @PathVariable String dataset,
+            @Parameter(description = "csv or ndjson") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Only rows with a greater id") @RequestParam(defaultValue = "0") long afterId,
+            @Parameter(description = "Only rows written at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) {
+        ExportDataset exportDataset = ExportDataset.fromName(dataset);
+        ExportFormat exportFormat = ExportFormat.fromName(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(exportDataset.getName() + "." + exportFormat.getName())
+                .build().toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return new WebAsyncTask<>(timeoutMs, () -> {
+            OutputStream out = response.getOutputStream();
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            exportService.export(exportDataset, exportFormat, afterId, updatedSince, target);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            out.flush();
+            return null;
+        });
+    }
+
+    /** Whether the client accepts gzip with a non-zero quality, explicitly or through {@code *}. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.carins.web;
 
+import com.example.carins.exception.ValidationException;
 import com.example.carins.model.InsurancePolicy;
+import com.example.carins.service.FieldCatalog;
+import com.example.carins.service.FieldProjectionService;
+import com.example.carins.service.FieldSelection;
 import com.example.carins.service.InsurancePolicyService;
 import com.example.carins.web.dto.InsurancePolicyCreateDto;
 import com.example.carins.web.dto.InsurancePolicyUpdateDto;
+import com.example.carins.web.dto.MultiGetDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,12 +17,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +41,7 @@ public class InsurancePolicyController {
 
 
     private final InsurancePolicyService policyService;
+    private final FieldProjectionService fieldProjectionService;
 
     @Operation(
             summary = "Create a new insurance policy",
@@ -126,6 +137,10 @@ public class InsurancePolicyController {
                             schema = @Schema(implementation = InsurancePolicy.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "The cached copy named in If-None-Match is still current"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Insurance policy not found",
@@ -146,13 +161,31 @@ public class InsurancePolicyController {
             )
     })
     @GetMapping("/{id}")
-    public ResponseEntity<InsurancePolicy> getPolicy(
+    public ResponseEntity<?> getPolicy(
             @Parameter(description = "Insurance policy ID", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return, e.g. startDate,endDate or car.vin; naming an "
+                    + "object returns all of its fields") @RequestParam(required = false) String fields,
+            @Parameter(description = "ETag of a cached copy; answered with 304 if still current")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Retrieving insurance policy with id: {}", id);
 
+        if (fields != null) {
+            FieldSelection selection = FieldSelection.parse(FieldCatalog.POLICIES, fields);
+            String current = ETags.forFields(ETags.forPolicy(policyService.getPolicyStamp(id)), selection);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+            return ResponseEntity.ok().eTag(current).body(fieldProjectionService.getById(selection, id));
+        }
+        if (ifNoneMatch != null) {
+            String current = ETags.forPolicy(policyService.getPolicyStamp(id));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
         InsurancePolicy policy = policyService.getPolicy(id);
-        return ResponseEntity.ok(policy);
+        return ResponseEntity.ok().eTag(ETags.forPolicy(policy)).body(policy);
     }
 
     @Operation(
@@ -170,11 +203,41 @@ public class InsurancePolicyController {
             )
     })
     @GetMapping
-    public ResponseEntity<List<InsurancePolicy>> getAllPolicies() {
+    @StreamedResponse
+    public void getAllPolicies(
+            @Parameter(description = "Comma-separated fields to return, e.g. startDate,endDate or car.vin; naming an "
+                    + "object returns all of its fields") @RequestParam(required = false) String fields,
+            HttpServletResponse response) throws IOException {
         log.info("Retrieving all insurance policies");
+        FieldSelection selection = fields != null ? FieldSelection.parse(FieldCatalog.POLICIES, fields) : null;
 
-        List<InsurancePolicy> policies = policyService.getAllPolicies();
-        return ResponseEntity.ok(policies);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (selection != null) {
+            fieldProjectionService.writeAll(selection, response.getOutputStream());
+        } else {
+            policyService.writeAllPolicies(response.getOutputStream());
+        }
+    }
+
+    @Operation(
+            summary = "Get insurance policies by IDs",
+            description = "Retrieves several insurance policies in one call; IDs that do not exist are listed in "
+                    + "missingIds instead of failing the request"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found insurance policies and missing IDs"),
+            @ApiResponse(responseCode = "400", description = "No IDs, more than 1000 IDs, or combined with fields")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetDto<InsurancePolicy>> getPoliciesByIds(
+            @Parameter(description = "Comma-separated insurance policy IDs", required = true, example = "1,2,3")
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        log.info("Retrieving {} insurance policies by id", ids.size());
+        if (fields != null) {
+            throw new ValidationException("fields cannot be combined with ids");
+        }
+        return ResponseEntity.ok(policyService.getPoliciesByIds(ids));
     }
 
     @Operation(
@@ -192,18 +255,24 @@ public class InsurancePolicyController {
             )
     })
     @GetMapping("/car/{carId}")
-    public ResponseEntity<List<InsurancePolicy>> getPoliciesByCarId(
+    public ResponseEntity<List<?>> getPoliciesByCarId(
             @Parameter(description = "Car ID to filter policies", required = true, example = "1")
-            @PathVariable Long carId) {
+            @PathVariable Long carId,
+            @Parameter(description = "Comma-separated fields to return, e.g. startDate,endDate")
+            @RequestParam(required = false) String fields) {
         log.info("Retrieving insurance policies for car: {}", carId);
 
+        if (fields != null) {
+            FieldSelection selection = FieldSelection.parse(FieldCatalog.POLICIES, fields);
+            return ResponseEntity.ok(fieldProjectionService.findByParent(selection, carId));
+        }
         List<InsurancePolicy> policies = policyService.getPoliciesByCarId(carId);
         return ResponseEntity.ok(policies);
     }
 
     @Operation(
             summary = "Update an insurance policy",
-            description = "Updates an existing insurance policy. All fields in the request body are required, including endDate.",
+            description = "Updates an existing insurance policy. All fields in the request body are required, including endDate. Send the ETag from GET as If-Match to reject the update when someone else changed the policy first.",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Insurance policy update data",
                     required = true,
@@ -283,17 +352,41 @@ public class InsurancePolicyController {
                                     )
                             }
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "The policy was modified concurrently while this update was being written"
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "If-Match does not match the policy's current ETag",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Stale ETag",
+                                    value = """
+                                            {
+                                              "status": 412,
+                                              "error": "Precondition Failed",
+                                              "message": "Insurance policy 1 has version 4, not 3. Reload it and retry.",
+                                              "timestamp": "2024-01-01T10:00:00"
+                                            }
+                                            """
+                            )
+                    )
             )
     })
     @PutMapping("/{id}")
     public ResponseEntity<InsurancePolicy> updatePolicy(
             @Parameter(description = "Insurance policy ID to update", required = true, example = "1")
             @PathVariable Long id,
+            @Parameter(description = "ETag from GET; the update is rejected if the policy changed since", example = "\"0\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody InsurancePolicyUpdateDto dto) {
         log.info("Updating insurance policy with id: {}", id);
 
-        InsurancePolicy updatedPolicy = policyService.updatePolicy(id, dto);
-        return ResponseEntity.ok(updatedPolicy);
+        InsurancePolicy updatedPolicy = policyService.updatePolicy(id, dto, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.forPolicy(updatedPolicy)).body(updatedPolicy);
     }
 
     @Operation(
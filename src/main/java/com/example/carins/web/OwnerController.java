@@ -1,23 +1,37 @@
 package com.example.carins.web;
 
+import com.example.carins.exception.ValidationException;
 import com.example.carins.model.Owner;
 import com.example.carins.service.OwnerService;
 import com.example.carins.service.CarService;
+import com.example.carins.service.FieldCatalog;
+import com.example.carins.service.FieldProjectionService;
+import com.example.carins.service.FieldSelection;
 import com.example.carins.web.dto.CreateOwnerDto;
+import com.example.carins.web.dto.MultiGetDto;
 import com.example.carins.web.dto.OwnerDto;
+import com.example.carins.web.dto.OwnerPortfolioDto;
 import com.example.carins.web.dto.UpdateOwnerDto;
 import com.example.carins.web.dto.CarDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 
@@ -30,27 +44,79 @@ public class OwnerController {
 
     private final OwnerService ownerService;
     private final CarService carService;
+    private final FieldProjectionService fieldProjectionService;
 
     @GetMapping("/owners")
-    @Operation(summary = "Get all owners", description = "Retrieve a list of all owners in the system")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of owners")
-    public List<OwnerDto> getOwners() {
+    @StreamedResponse
+    @Operation(summary = "Get all owners", description = "Retrieve a list of all owners in the system, written while it is read")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved list of owners",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = OwnerDto.class))))
+    public void getOwners(
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name")
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) throws IOException {
         log.info("Fetching all owners");
-        return ownerService.listOwners().stream().map(this::toDto).toList();
+        FieldSelection selection = fields != null ? FieldSelection.parse(FieldCatalog.OWNERS, fields) : null;
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (selection != null) {
+            fieldProjectionService.writeAll(selection, response.getOutputStream());
+        } else {
+            ownerService.writeOwners(response.getOutputStream());
+        }
     }
 
     @GetMapping("/owners/{ownerId}")
     @Operation(summary = "Get owner by ID", description = "Retrieve a specific owner by their ID")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved owner"),
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved owner",
+                content = @Content(schema = @Schema(implementation = OwnerDto.class))),
+        @ApiResponse(responseCode = "304", description = "Cached copy is still current"),
+        @ApiResponse(responseCode = "400", description = "Unknown field"),
         @ApiResponse(responseCode = "404", description = "Owner not found")
     })
-    public ResponseEntity<OwnerDto> getOwnerById(
-            @Parameter(description = "Owner ID", required = true) @PathVariable Long ownerId) {
+    public ResponseEntity<?> getOwnerById(
+            @Parameter(description = "Owner ID", required = true) @PathVariable Long ownerId,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "ETag of a cached copy; answered with 304 if still current")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching owner with id: {}", ownerId);
         
+        if (fields != null) {
+            FieldSelection selection = FieldSelection.parse(FieldCatalog.OWNERS, fields);
+            String current = ETags.forFields(ETags.forOwner(ownerService.getOwnerStamp(ownerId)), selection);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+            return ResponseEntity.ok().eTag(current).body(fieldProjectionService.getById(selection, ownerId));
+        }
+        if (ifNoneMatch != null) {
+            String current = ETags.forOwner(ownerService.getOwnerStamp(ownerId));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
         Owner owner = ownerService.getOwnerById(ownerId);
-        return ResponseEntity.ok(toDto(owner));
+        return ResponseEntity.ok().eTag(ETags.forOwner(owner)).body(OwnerDto.from(owner));
+    }
+
+    @GetMapping(value = "/owners", params = "ids")
+    @Operation(summary = "Get owners by ids", description = "Retrieve several owners in one call; ids that do not exist "
+            + "are listed in missingIds instead of failing the request")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Found owners and missing ids"),
+        @ApiResponse(responseCode = "400", description = "No ids, more than 1000 ids, or combined with fields")
+    })
+    public ResponseEntity<MultiGetDto<OwnerDto>> getOwnersByIds(
+            @Parameter(description = "Comma-separated ids, e.g. 1,2,3", required = true) @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields) {
+        log.info("Fetching {} owners by id", ids.size());
+        if (fields != null) {
+            throw new ValidationException("fields cannot be combined with ids");
+        }
+        return ResponseEntity.ok(ownerService.getOwnersByIds(ids));
     }
 
     @PostMapping("/owners")
@@ -64,7 +130,7 @@ public class OwnerController {
         log.info("Creating new owner with email: {}", createOwnerDto.email());
         
         Owner createdOwner = ownerService.createOwner(createOwnerDto);
-        OwnerDto ownerDto = toDto(createdOwner);
+        OwnerDto ownerDto = OwnerDto.from(createdOwner);
         
         URI location = URI.create("/api/owners/" + createdOwner.getId());
         return ResponseEntity.created(location).body(ownerDto);
@@ -83,7 +149,7 @@ public class OwnerController {
         log.info("Updating owner with id: {}", ownerId);
         
         Owner updatedOwner = ownerService.updateOwner(ownerId, updateOwnerDto);
-        return ResponseEntity.ok(toDto(updatedOwner));
+        return ResponseEntity.ok(OwnerDto.from(updatedOwner));
     }
 
     @DeleteMapping("/owners/{ownerId}")
@@ -104,26 +170,38 @@ public class OwnerController {
     @GetMapping("/owners/{ownerId}/cars")
     @Operation(summary = "Get cars by owner", description = "Retrieve all cars owned by a specific owner")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved owner's cars"),
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved owner's cars",
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = CarDto.class)))),
+        @ApiResponse(responseCode = "400", description = "Unknown field"),
         @ApiResponse(responseCode = "404", description = "Owner not found")
     })
-    public ResponseEntity<List<CarDto>> getCarsByOwner(
-            @Parameter(description = "Owner ID", required = true) @PathVariable Long ownerId) {
+    public ResponseEntity<List<?>> getCarsByOwner(
+            @Parameter(description = "Owner ID", required = true) @PathVariable Long ownerId,
+            @Parameter(description = "Comma-separated car fields to return, e.g. id,vin")
+            @RequestParam(required = false) String fields) {
         log.info("Fetching cars for owner with id: {}", ownerId);
+        FieldSelection selection = fields != null ? FieldSelection.parse(FieldCatalog.CARS, fields) : null;
 
         ownerService.getOwnerById(ownerId);
         
+        if (selection != null) {
+            return ResponseEntity.ok(fieldProjectionService.findByParent(selection, ownerId));
+        }
         List<CarDto> cars = carService.getCarsByOwnerId(ownerId);
         return ResponseEntity.ok(cars);
     }
 
-    private OwnerDto toDto(Owner owner) {
-        return new OwnerDto(owner.getId(), owner.getName(), owner.getEmail());
-    }
+    @GetMapping("/owners/{ownerId}/portfolio")
+    @Operation(summary = "Get owner portfolio",
+            description = "Retrieve an owner together with all their cars, each car's policies and claims, in a single response")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved owner portfolio"),
+        @ApiResponse(responseCode = "404", description = "Owner not found")
+    })
+    public ResponseEntity<OwnerPortfolioDto> getOwnerPortfolio(
+            @Parameter(description = "Owner ID", required = true) @PathVariable Long ownerId) {
+        log.info("Fetching portfolio for owner with id: {}", ownerId);
 
-    private CarDto toCarDto(com.example.carins.model.Car c) {
-        var o = c.getOwner();
-        var ownerDto = o != null ? new CarDto.OwnerDto(o.getId(), o.getName(), o.getEmail()) : null;
-        return new CarDto(c.getId(), c.getVin(), c.getMake(), c.getModel(), c.getYearOfManufacture(), ownerDto);
+        return ResponseEntity.ok(ownerService.getPortfolio(ownerId));
     }
 }
@@ -0,0 +1,73 @@
+package com.example.carins.web;
+
+import com.example.carins.service.ProviderHistogram;
+import com.example.carins.service.ProviderReportService;
+import com.example.carins.web.dto.ProviderActiveCountsDto;
+import com.example.carins.web.dto.ProviderMonthDto;
+import com.example.carins.web.dto.ProviderStatsRebuildDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@Slf4j
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Reports", description = "Provider market share and policy flows over time")
+public class ReportController {
+
+    private final ProviderReportService providerReportService;
+    private final ProviderHistogram providerHistogram;
+
+    @GetMapping("/providers/active")
+    @Operation(summary = "Active policies per provider",
+            description = "For each date, the policies active per provider and their market share, largest provider first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One entry per date, in date order"),
+        @ApiResponse(responseCode = "400", description = "No dates or too many dates")
+    })
+    public List<ProviderActiveCountsDto> getActiveCounts(
+            @Parameter(description = "Days to report (YYYY-MM-DD), comma separated, at most "
+                    + ProviderReportService.MAX_DATES, required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) List<LocalDate> dates) {
+        return providerReportService.getActiveCounts(dates);
+    }
+
+    @GetMapping("/providers/monthly")
+    @Operation(summary = "New and expired policies per provider",
+            description = "For each month in the range, the policies each provider gained and lost")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One entry per month, including empty months"),
+        @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    })
+    public List<ProviderMonthDto> getMonthlyFlows(
+            @Parameter(description = "First month (YYYY-MM)", required = true, example = "2025-01")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @Parameter(description = "Last month (YYYY-MM), at most " + ProviderReportService.MAX_MONTHS
+                    + " months after from", required = true, example = "2025-12")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        return providerReportService.getMonthlyFlows(from, to);
+    }
+
+    @PostMapping("/providers/rebuild")
+    @Operation(summary = "Rebuild provider statistics",
+            description = "Recomputes the provider histogram from the policies; it also runs nightly. Admins only")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Histogram rebuilt"),
+        @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    })
+    public ProviderStatsRebuildDto rebuild() {
+        log.info("Provider histogram rebuild requested");
+        return providerHistogram.rebuild();
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.carins.web.dto;
 
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+
 public record CarDto(
         Long id,
         String vin,
@@ -9,5 +12,14 @@ public record CarDto(
         OwnerDto owner
 ) {
     public record OwnerDto(Long id, String name, String email) {
+
+        public static OwnerDto from(Owner owner) {
+            return owner != null ? new OwnerDto(owner.getId(), owner.getName(), owner.getEmail()) : null;
+        }
+    }
+
+    public static CarDto from(Car car) {
+        return new CarDto(car.getId(), car.getVin(), car.getMake(), car.getModel(), car.getYearOfManufacture(),
+                OwnerDto.from(car.getOwner()));
     }
 }
@@ -0,0 +1,18 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "A page of car search results, ordered by id")
+public record CarPageDto(
+        @Schema(description = "Matching cars")
+        List<CarDto> cars,
+
+        @Schema(description = "Pass as after to get the next page; null on the last page")
+        Long nextAfter,
+
+        @Schema(description = "Whether more cars match after this page")
+        boolean hasMore
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.carins.web.dto;
+
+import java.time.LocalDate;
+
+/** Filters of a car search; null means "any". All given filters must match. */
+public record CarSearchCriteria(
+        String make,
+        String model,
+        Integer minYear,
+        Integer maxYear,
+        Long ownerId,
+        LocalDate activePolicyOn
+) {
+}
@@ -0,0 +1,29 @@
+package com.example.carins.web.dto;
+
+import com.example.carins.model.TrackedEntity;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "A single write or delete on the change feed")
+public record ChangeDto(
+        @Schema(description = "Entity type", example = "CAR")
+        TrackedEntity entity,
+
+        @Schema(description = "Id of the changed entity", example = "1")
+        Long id,
+
+        @Schema(description = "UPSERT carries the current state in payload, DELETE has no payload")
+        Operation operation,
+
+        @Schema(description = "When the change was written")
+        LocalDateTime changedAt,
+
+        @Schema(description = "Current state of the entity (OwnerDto, CarDto, InsurancePolicyDto or ClaimResponseDto)")
+        Object payload
+) {
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "A page of the change feed")
+public record ChangeFeedDto(
+        @Schema(description = "Changes in commit-timestamp order")
+        List<ChangeDto> changes,
+
+        @Schema(description = "Pass as since to continue after the last change of this page")
+        String nextToken,
+
+        @Schema(description = "Whether more changes are available right away")
+        boolean hasMore
+) {
+}
@@ -1,5 +1,7 @@
 package com.example.carins.web.dto;
 
+import com.example.carins.model.Claim;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,4 +14,14 @@ public record ClaimResponseDto(
         BigDecimal amount,
         LocalDateTime createdAt
 ) {
+    public static ClaimResponseDto from(Claim claim) {
+        return new ClaimResponseDto(
+                claim.getId(),
+                claim.getCar().getId(),
+                claim.getClaimDate(),
+                claim.getDescription(),
+                claim.getAmount(),
+                claim.getCreatedAt()
+        );
+    }
 }
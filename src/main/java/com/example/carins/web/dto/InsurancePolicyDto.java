@@ -1,5 +1,6 @@
 package com.example.carins.web.dto;
 
+import com.example.carins.model.InsurancePolicy;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDate;
@@ -21,4 +22,13 @@ public record InsurancePolicyDto(
         @Schema(description = "Policy end date", example = "2025-01-01")
         LocalDate endDate
 ) {
+    public static InsurancePolicyDto from(InsurancePolicy policy) {
+        return new InsurancePolicyDto(
+                policy.getId(),
+                policy.getCar().getId(),
+                policy.getProvider(),
+                policy.getStartDate(),
+                policy.getEndDate()
+        );
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "The items found for a set of ids")
+public record MultiGetDto<T>(
+        @Schema(description = "Found items, in the order their ids were requested")
+        List<T> items,
+
+        @Schema(description = "Requested ids that do not exist")
+        List<Long> missingIds
+) {
+}
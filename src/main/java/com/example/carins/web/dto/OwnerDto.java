@@ -1,8 +1,13 @@
 package com.example.carins.web.dto;
 
+import com.example.carins.model.Owner;
+
 public record OwnerDto(
         Long id,
         String name,
         String email
 ) {
+    public static OwnerDto from(Owner owner) {
+        return new OwnerDto(owner.getId(), owner.getName(), owner.getEmail());
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.carins.web.dto;
+
+import java.util.List;
+
+public record OwnerPortfolioDto(
+        Long ownerId,
+        String name,
+        String email,
+        List<PortfolioCarDto> cars
+) {
+}
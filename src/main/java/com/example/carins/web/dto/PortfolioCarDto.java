@@ -0,0 +1,14 @@
+package com.example.carins.web.dto;
+
+import java.util.List;
+
+public record PortfolioCarDto(
+        Long id,
+        String vin,
+        String make,
+        String model,
+        int yearOfManufacture,
+        List<InsurancePolicyDto> policies,
+        List<ClaimResponseDto> claims
+) {
+}
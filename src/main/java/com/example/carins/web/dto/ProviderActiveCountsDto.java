@@ -0,0 +1,19 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Active policies per provider on one day, largest provider first")
+public record ProviderActiveCountsDto(
+        @Schema(description = "The day", example = "2025-06-30")
+        LocalDate date,
+
+        @Schema(description = "Policies active on the day across all providers")
+        int totalActive,
+
+        @Schema(description = "Providers with at least one active policy")
+        List<ProviderShareDto> providers
+) {
+}
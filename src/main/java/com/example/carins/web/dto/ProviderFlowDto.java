@@ -0,0 +1,16 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Policies a provider gained and lost in one month")
+public record ProviderFlowDto(
+        @Schema(description = "Insurance provider", example = "Allianz")
+        String provider,
+
+        @Schema(description = "Policies starting in the month")
+        long newPolicies,
+
+        @Schema(description = "Policies whose last day is in the month")
+        long expiredPolicies
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@Schema(description = "New and expired policies per provider in one month")
+public record ProviderMonthDto(
+        @Schema(description = "The month", type = "string", example = "2025-06")
+        YearMonth month,
+
+        @Schema(description = "Providers with new or expired policies in the month")
+        List<ProviderFlowDto> providers
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A provider's active policies on one day")
+public record ProviderShareDto(
+        @Schema(description = "Insurance provider", example = "Allianz")
+        String provider,
+
+        @Schema(description = "Policies active on the day")
+        int activePolicies,
+
+        @Schema(description = "Share of all active policies, between 0 and 1", example = "0.4167")
+        double marketShare
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of rebuilding the provider histogram")
+public record ProviderStatsRebuildDto(
+        @Schema(description = "Providers rebuilt, including ones whose policies are all gone")
+        int providers,
+
+        @Schema(description = "Policies counted")
+        long policies,
+
+        @Schema(description = "Wall-clock duration in milliseconds")
+        long durationMs
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.carins.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A car found by VIN lookup")
+public record VinMatchDto(
+        CarDto car,
+
+        @Schema(description = "Characters to insert, delete or replace to turn the typed VIN into this one; "
+                + "0 for prefix matches")
+        int errors
+) {
+}
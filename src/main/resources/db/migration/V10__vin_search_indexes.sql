@@ -0,0 +1,8 @@
+-- Indexes behind VIN lookup in CarSearchService. Built CONCURRENTLY, see V10__vin_search_indexes.sql.conf.
+-- uk_car_vin uses the database collation, which cannot serve LIKE 'prefix%'; varchar_pattern_ops compares
+-- byte-wise and can. The trigram index serves the pg_trgm similarity operator (%) used by fuzzy lookup.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_vin_pattern ON car (vin varchar_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_vin_trgm ON car USING gin (vin gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- Daily per-provider policy histogram behind /api/reports/providers/*, maintained by ProviderHistogram: one row per
+-- provider and day from the provider's first policy start to its last policy end. provider_stats_range records that
+-- span and is the row writers lock per provider. Filled by the first rebuild after startup.
+
+CREATE TABLE IF NOT EXISTS provider_stats_range (
+    provider   VARCHAR(255) PRIMARY KEY,
+    first_date DATE         NOT NULL,
+    last_date  DATE         NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS provider_daily_stats (
+    provider   VARCHAR(255) NOT NULL,
+    stats_date DATE         NOT NULL,
+    active     INTEGER      NOT NULL,
+    started    INTEGER      NOT NULL,
+    ended      INTEGER      NOT NULL,
+    PRIMARY KEY (provider, stats_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_provider_daily_stats_date ON provider_daily_stats (stats_date);
@@ -0,0 +1,4 @@
+-- Lets the provider histogram rebuild count one provider's policy starts and ends from the index alone.
+-- Built CONCURRENTLY, see V12__provider_policy_index.sql.conf.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_policy_provider_dates ON insurancepolicy (provider, start_date, end_date);
@@ -0,0 +1,5 @@
+-- Allows the ADMIN role (operations endpoints such as DELETE /actuator/slowqueries). Admins are only ever assigned
+-- here in the database; registration always creates USER accounts.
+
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_role_check;
+ALTER TABLE users ADD CONSTRAINT users_role_check CHECK (role IN ('USER', 'ADMIN'));
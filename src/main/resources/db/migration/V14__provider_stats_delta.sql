@@ -0,0 +1,15 @@
+-- Pending changes to the provider histogram: policy writes append one row per counted span instead of updating
+-- provider_daily_stats, so they never wait on each other. Reports add the pending rows on read; the rebuild folds them
+-- in and deletes them. provider_stats_range is no longer locked by writers.
+
+CREATE SEQUENCE IF NOT EXISTS provider_stats_delta_seq START WITH 1000 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS provider_stats_delta (
+    id         BIGINT       PRIMARY KEY,
+    provider   VARCHAR(255) NOT NULL,
+    start_date DATE         NOT NULL,
+    end_date   DATE         NOT NULL,
+    delta      INTEGER      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_provider_stats_delta_provider ON provider_stats_delta (provider);
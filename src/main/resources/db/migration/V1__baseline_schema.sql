@@ -0,0 +1,49 @@
+-- Baseline schema. Written with IF NOT EXISTS so it also applies cleanly to databases
+-- that were previously created by Hibernate's ddl-auto=update.
+
+CREATE SEQUENCE IF NOT EXISTS owner_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS car_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS insurancepolicy_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS claim_seq START WITH 1000 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1000 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS owner (
+    id    BIGINT       NOT NULL PRIMARY KEY,
+    name  VARCHAR(255) NOT NULL,
+    email VARCHAR(255) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS car (
+    id                  BIGINT       NOT NULL PRIMARY KEY,
+    vin                 VARCHAR(32)  NOT NULL,
+    make                VARCHAR(255),
+    model               VARCHAR(255),
+    year_of_manufacture INTEGER      NOT NULL,
+    owner_id            BIGINT       NOT NULL REFERENCES owner (id)
+);
+
+CREATE TABLE IF NOT EXISTS insurancepolicy (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    car_id     BIGINT       NOT NULL REFERENCES car (id),
+    provider   VARCHAR(255),
+    start_date DATE         NOT NULL,
+    end_date   DATE         NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS claim (
+    id          BIGINT         NOT NULL PRIMARY KEY,
+    car_id      BIGINT         NOT NULL REFERENCES car (id),
+    claim_date  DATE           NOT NULL,
+    description VARCHAR(1000)  NOT NULL,
+    amount      NUMERIC(10, 2) NOT NULL,
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id       BIGINT       NOT NULL PRIMARY KEY,
+    username VARCHAR(50)  NOT NULL UNIQUE,
+    password VARCHAR(100) NOT NULL,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    role     VARCHAR(255) CHECK (role IN ('USER')),
+    enabled  BOOLEAN      NOT NULL
+);
@@ -0,0 +1,7 @@
+-- Moves the id sequences past ids created before sequence-based generation (IDENTITY columns,
+-- seed data). With the pooled-lo optimizer the value returned by nextval is the first id of a block.
+SELECT setval('owner_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM owner) + 1, 1000), false);
+SELECT setval('car_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM car) + 1, 1000), false);
+SELECT setval('insurancepolicy_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM insurancepolicy) + 1, 1000), false);
+SELECT setval('claim_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM claim) + 1, 1000), false);
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users) + 1, 1000), false);
@@ -0,0 +1,17 @@
+-- Indexes behind the hot repository queries. Built CONCURRENTLY so existing tables stay writable;
+-- see V3__hot_path_indexes.sql.conf. The unique VIN index fails if duplicate VINs already exist.
+
+-- InsurancePolicyRepository.existsActiveOnDate, findByCarId*: covers the whole predicate
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_policy_car_dates ON insurancepolicy (car_id, start_date, end_date);
+
+-- InsurancePolicyRepository.findPoliciesExpiringOnDate
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_policy_end_date ON insurancepolicy (end_date);
+
+-- ClaimRepository.findByCarId*OrderByClaimDateDesc: filter and sort from the index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_claim_car_date ON claim (car_id, claim_date DESC);
+
+-- CarRepository.findByOwnerId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_owner ON car (owner_id);
+
+-- CarRepository.findByVin
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_car_vin ON car (vin);
@@ -0,0 +1,7 @@
+-- Last-write timestamps for incremental exports, maintained by the entities (@PrePersist/@PreUpdate).
+-- Existing rows get the migration time; the constant default keeps ADD COLUMN a metadata-only change.
+
+ALTER TABLE owner ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE car ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE insurancepolicy ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE claim ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,6 @@
+-- Indexes behind ExportService's updatedSince filter. Built CONCURRENTLY, see V5__updated_at_indexes.sql.conf.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_owner_updated_at ON owner (updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_updated_at ON car (updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_policy_updated_at ON insurancepolicy (updated_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_claim_updated_at ON claim (updated_at);
@@ -0,0 +1,10 @@
+-- Tombstones for the change feed (GET /api/changes): one row per deleted owner, car, policy or claim.
+
+CREATE SEQUENCE IF NOT EXISTS deleted_entity_seq START WITH 1000 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS deleted_entity (
+    id          BIGINT       PRIMARY KEY,
+    entity_type VARCHAR(16)  NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    deleted_at  TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,14 @@
+-- The change feed pages with keyset predicates on (updated_at, id); the composite indexes serve both that and
+-- ExportService's updatedSince filter, so they replace the single-column ones from V5.
+-- Built CONCURRENTLY, see V7__change_feed_indexes.sql.conf.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_owner_updated_at_id ON owner (updated_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_updated_at_id ON car (updated_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_policy_updated_at_id ON insurancepolicy (updated_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_claim_updated_at_id ON claim (updated_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_deleted_entity_deleted_at_id ON deleted_entity (deleted_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_owner_updated_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_car_updated_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_policy_updated_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_claim_updated_at;
@@ -0,0 +1,5 @@
+-- @Version columns for optimistic locking of car and policy updates (sent to clients as ETags).
+-- A constant default keeps ADD COLUMN a metadata-only change; existing rows start at version 0.
+
+ALTER TABLE car ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE insurancepolicy ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Indexes behind CarSearchService. Searches page by id, so id closes each index: an owner's cars, or the cars of a
+-- make and model, come back already in page order. (owner_id, id) replaces the single-column owner index from V3.
+-- Built CONCURRENTLY, see V9__car_search_indexes.sql.conf.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_make_model_year_id ON car (make, model, year_of_manufacture, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_car_owner_id ON car (owner_id, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_car_owner;
@@ -42,10 +42,11 @@ INSERT INTO
         make,
         model,
         year_of_manufacture,
-        owner_id
+        owner_id,
+        version
     )
 VALUES
-    (1, 'VIN12345', 'Dacia', 'Logan', 2018, 1);
+    (1, 'VIN12345', 'Dacia', 'Logan', 2018, 1, 0);
 
 INSERT INTO
     car (
@@ -54,43 +55,47 @@ INSERT INTO
         make,
         model,
         year_of_manufacture,
-        owner_id
+        owner_id,
+        version
     )
 VALUES
-    (2, 'VIN67890', 'VW', 'Golf', 2021, 2);
+    (2, 'VIN67890', 'VW', 'Golf', 2021, 2, 0);
 
 -- Insurance Policies (fixing open-ended policy to have end date)
 INSERT INTO
-    insurancepolicy (id, car_id, provider, start_date, end_date)
+    insurancepolicy (id, car_id, provider, start_date, end_date, version)
 VALUES
     (
         1,
         1,
         'Allianz',
         DATE '2024-01-01',
-        DATE '2024-12-31'
+        DATE '2024-12-31',
+        0
     );
 
 INSERT INTO
-    insurancepolicy (id, car_id, provider, start_date, end_date)
+    insurancepolicy (id, car_id, provider, start_date, end_date, version)
 VALUES
     (
         2,
         1,
         'Groupama',
         DATE '2025-01-01',
-        DATE '2026-01-01'
+        DATE '2026-01-01',
+        0
     );
 
 INSERT INTO
-    insurancepolicy (id, car_id, provider, start_date, end_date)
+    insurancepolicy (id, car_id, provider, start_date, end_date, version)
 VALUES
     (
         3,
         2,
         'Allianz',
         DATE '2025-03-01',
-        DATE '2025-09-30'
+        DATE '2025-09-30',
+        0
     );
 
 -- Sample Claims
@@ -0,0 +1,89 @@
+package com.example.carins.config;
+
+import com.example.carins.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKey123456789012345678901234567890123456789012345678901234";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheEnabled", true);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 2);
+
+        user = new User("testuser", "password", "test@example.com", User.Role.USER);
+    }
+
+    @Test
+    void validateToken_RepeatedCalls_ServedFromCache() {
+        String token = jwtUtil.generateToken(user);
+
+        assertTrue(jwtUtil.validateToken(token));
+        assertTrue(jwtUtil.validateToken(token, user));
+        assertEquals("testuser", jwtUtil.extractUsername(token));
+        assertEquals(1, verifiedTokens().size());
+    }
+
+    @Test
+    void validateToken_TamperedToken_RejectedAfterOriginalCached() {
+        String token = jwtUtil.generateToken(user);
+        assertTrue(jwtUtil.validateToken(token));
+
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    void validateToken_ExpiredToken_RejectedAndNotCached() {
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", -1_000L);
+        String token = jwtUtil.generateToken(user);
+
+        assertFalse(jwtUtil.validateToken(token));
+        assertTrue(verifiedTokens().isEmpty());
+    }
+
+    @Test
+    void validateToken_CacheFull_StillValidates() {
+        for (int i = 0; i < 5; i++) {
+            User other = new User("user" + i, "password", "user" + i + "@example.com", User.Role.USER);
+            assertTrue(jwtUtil.validateToken(jwtUtil.generateToken(other)));
+        }
+
+        assertEquals(2, verifiedTokens().size());
+    }
+
+    @Test
+    void validateToken_CacheFull_EvictsLeastRecentlyUsed() {
+        String first = jwtUtil.generateToken(user);
+        String second = jwtUtil.generateToken(new User("second", "password", "second@example.com", User.Role.USER));
+        String third = jwtUtil.generateToken(new User("third", "password", "third@example.com", User.Role.USER));
+
+        assertTrue(jwtUtil.validateToken(first));
+        assertTrue(jwtUtil.validateToken(second));
+        assertTrue(jwtUtil.validateToken(first));
+        assertTrue(jwtUtil.validateToken(third));
+
+        assertEquals(2, verifiedTokens().size());
+        assertTrue(verifiedTokens().containsKey(ReflectionTestUtils.invokeMethod(JwtUtil.class, "digest", first)));
+        assertFalse(verifiedTokens().containsKey(ReflectionTestUtils.invokeMethod(JwtUtil.class, "digest", second)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> verifiedTokens() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+    }
+}
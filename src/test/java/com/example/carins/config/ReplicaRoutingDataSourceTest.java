@@ -0,0 +1,96 @@
+package com.example.carins.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("routing_primary", "primary");
+        replica = database("routing_replica", "replica");
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaWithinLag_UsesReplica() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT 0", 5_000);
+        monitor.refresh();
+
+        assertEquals("replica", currentNode(monitor, true));
+    }
+
+    @Test
+    void readWriteTransaction_AlwaysUsesPrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT 0", 5_000);
+        monitor.refresh();
+
+        assertEquals("primary", currentNode(monitor, false));
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaLagging_FallsBackToPrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT 30", 5_000);
+        monitor.refresh();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", currentNode(monitor, true));
+    }
+
+    @Test
+    void readOnlyTransaction_LagCheckFails_FallsBackToPrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT missing_column FROM node", 5_000);
+        monitor.refresh();
+
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals("primary", currentNode(monitor, true));
+    }
+
+    @Test
+    void readOnlyTransaction_ReplicaCatchesUp_RoutesBackToReplica() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS lag (seconds DOUBLE)");
+        replicaJdbc.execute("DELETE FROM lag");
+        replicaJdbc.execute("INSERT INTO lag VALUES (30)");
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM lag", 5_000);
+
+        monitor.refresh();
+        assertEquals("primary", currentNode(monitor, true));
+
+        replicaJdbc.execute("UPDATE lag SET seconds = 1");
+        monitor.refresh();
+        assertEquals("replica", currentNode(monitor, true));
+    }
+
+    private String currentNode(ReplicaLagMonitor monitor, boolean readOnly) {
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, monitor));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(routing);
+
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static DataSource database(String name, String node) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", node);
+        return dataSource;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.carins.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestProfilingFilterTest {
+
+    @Test
+    void sampled_AddsServerTimingAfterBodyIsWritten() throws Exception {
+        MockHttpServletResponse response = run(new RequestProfilingFilter(true, 1.0), new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                RequestProfile.recordStatement(2_000_000);
+                RequestProfile.recordStatement(1_000_000);
+                RequestProfile.recordSerialization(500_000);
+                resp.getWriter().write("{\"ok\":true}");
+                resp.flushBuffer();
+            }
+        });
+
+        String serverTiming = response.getHeader(RequestProfilingFilter.SERVER_TIMING_HEADER);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.startsWith("db;dur=3.00;desc=\"2 statements\", serialization;dur=0.50"), serverTiming);
+        assertEquals("{\"ok\":true}", response.getContentAsString());
+    }
+
+    @Test
+    void notSampled_PassesThroughWithoutProfile() throws Exception {
+        MockHttpServletResponse response = run(new RequestProfilingFilter(true, 0.0), new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                assertFalse(RequestProfile.isActive());
+                resp.getWriter().write("plain");
+            }
+        });
+
+        assertNull(response.getHeader(RequestProfilingFilter.SERVER_TIMING_HEADER));
+        assertEquals("plain", response.getContentAsString());
+    }
+
+    @Test
+    void disabled_IgnoresSampleRate() throws Exception {
+        MockHttpServletResponse response = run(new RequestProfilingFilter(false, 1.0), new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                assertFalse(RequestProfile.isActive());
+            }
+        });
+
+        assertNull(response.getHeader(RequestProfilingFilter.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    void sampledStreamedHandler_WrittenThroughWithoutServerTiming() throws Exception {
+        MockHttpServletResponse response = run(new RequestProfilingFilter(true, 1.0), new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                assertTrue(RequestProfile.isActive());
+                req.setAttribute(RequestProfilingFilter.STREAMED_RESPONSE_ATTRIBUTE, Boolean.TRUE);
+                resp.getWriter().write("[");
+                resp.flushBuffer();
+                assertTrue(resp.isCommitted());
+                resp.getWriter().write("]");
+            }
+        });
+
+        assertNull(response.getHeader(RequestProfilingFilter.SERVER_TIMING_HEADER));
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void propagate_CountsStatementsFromOtherThreads() throws Exception {
+        MockHttpServletResponse response = run(new RequestProfilingFilter(true, 1.0), new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                CompletableFuture.supplyAsync(RequestProfile.propagate(() -> {
+                    RequestProfile.recordStatement(1_000_000);
+                    return null;
+                })).join();
+            }
+        });
+
+        assertTrue(response.getHeader(RequestProfilingFilter.SERVER_TIMING_HEADER).contains("desc=\"1 statements\""));
+    }
+
+    private static MockHttpServletResponse run(RequestProfilingFilter filter, HttpServlet servlet) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cars/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+}
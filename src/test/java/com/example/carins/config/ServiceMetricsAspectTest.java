@@ -0,0 +1,95 @@
+package com.example.carins.config;
+
+import com.example.carins.exception.ResourceNotFoundException;
+import com.example.carins.exception.ValidationException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private SampleService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void successfulCall_RecordedWithSuccessOutcomeAndNoRoute() {
+        assertEquals("ok", service.find("ok"));
+
+        Timer timer = timer("find", "success");
+        assertEquals(1, timer.count());
+        assertEquals(ServiceMetricsAspect.NO_ROUTE, timer.getId().getTag("route"));
+        assertEquals("SampleService", timer.getId().getTag("class"));
+    }
+
+    @Test
+    void notFound_RecordedWithNotFoundOutcome() {
+        assertThrows(ResourceNotFoundException.class, () -> service.find("missing"));
+
+        assertEquals(1, timer("find", "not-found").count());
+    }
+
+    @Test
+    void validationFailure_RecordedWithValidationErrorOutcome() {
+        assertThrows(ValidationException.class, () -> service.find(""));
+
+        assertEquals(1, timer("find", "validation-error").count());
+    }
+
+    @Test
+    void callDuringRequest_TaggedWithRoutePattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cars/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/cars/{carId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        service.find("ok");
+
+        assertEquals("/api/cars/{carId}", timer("find", "success").getId().getTag("route"));
+    }
+
+    private Timer timer(String method, String outcome) {
+        Timer timer = registry.find(ServiceMetricsAspect.METRIC_NAME)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+        assertNotNull(timer, "no timer for " + method + "/" + outcome);
+        return timer;
+    }
+
+    @Service
+    static class SampleService {
+
+        public String find(String key) {
+            if (key.isEmpty()) {
+                throw new ValidationException("Key is required");
+            }
+            if ("missing".equals(key)) {
+                throw new ResourceNotFoundException("Not found: " + key);
+            }
+            return key;
+        }
+    }
+}
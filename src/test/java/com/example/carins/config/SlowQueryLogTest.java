@@ -0,0 +1,68 @@
+package com.example.carins.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @Test
+    void recent_ReturnsNewestFirst() {
+        SlowQueryLog log = new SlowQueryLog(3);
+        log.add(query("a"));
+        log.add(query("b"));
+
+        assertEquals(List.of("b", "a"), sqlOf(log.recent()));
+        assertEquals(2, log.total());
+    }
+
+    @Test
+    void add_WhenFull_OverwritesOldest() {
+        SlowQueryLog log = new SlowQueryLog(3);
+        for (String sql : List.of("a", "b", "c", "d", "e")) {
+            log.add(query(sql));
+        }
+
+        assertEquals(List.of("e", "d", "c"), sqlOf(log.recent()));
+        assertEquals(5, log.total());
+    }
+
+    @Test
+    void clear_EmptiesBuffer() {
+        SlowQueryLog log = new SlowQueryLog(2);
+        log.add(query("a"));
+
+        log.clear();
+
+        assertTrue(log.recent().isEmpty());
+        assertEquals(0, log.total());
+    }
+
+    @Test
+    void redact_KeepsNumbersAndDatesOnly() {
+        assertEquals("42", SlowQueryListener.redact(42L));
+        assertEquals("2024-06-01", SlowQueryListener.redact(LocalDate.of(2024, 6, 1)));
+        assertEquals("null", SlowQueryListener.redact(null));
+        assertEquals("<redacted string, length 16>", SlowQueryListener.redact("john@example.com"));
+    }
+
+    @Test
+    void isExplainable_OnlyQueries() {
+        assertTrue(QueryPlanCapture.isExplainable("  select * from car"));
+        assertTrue(QueryPlanCapture.isExplainable("WITH x AS (SELECT 1) SELECT * FROM x"));
+        assertFalse(QueryPlanCapture.isExplainable("insert into car values (?)"));
+        assertFalse(QueryPlanCapture.isExplainable("delete from car"));
+    }
+
+    private static SlowQuery query(String sql) {
+        return new SlowQuery(Instant.now(), "CarRepository.findAll", sql, List.of(), 250);
+    }
+
+    private static List<String> sqlOf(List<SlowQuery> queries) {
+        return queries.stream().map(SlowQuery::getSql).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.carins.exception;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void cannotCreateTransaction_PoolTimeout_ServiceUnavailableWithRetryAfter() throws SQLException {
+        SQLException poolTimeout;
+        try (HikariDataSource pool = pool("jdbc:h2:mem:handler-pool;DB_CLOSE_DELAY=-1", 250);
+             Connection held = pool.getConnection()) {
+            poolTimeout = assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        }
+
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response =
+                handler.handleCannotCreateTransactionException(openFailure(poolTimeout));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void cannotCreateTransaction_DatabaseUnreachable_InternalServerErrorWithoutRetryAfter() {
+        SQLException unreachable;
+        // Started without a first connection, and waited on long enough to have failed at least once, as a pool
+        // has throughout a real outage
+        try (HikariDataSource pool = pool("jdbc:h2:tcp://127.0.0.1:1/unreachable", 2000)) {
+            pool.setInitializationFailTimeout(-1);
+            unreachable = assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        }
+        assertNotNull(unreachable.getCause());
+
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response =
+                handler.handleCannotCreateTransactionException(openFailure(unreachable));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private static HikariDataSource pool(String url, long connectionTimeoutMs) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        return pool;
+    }
+
+    /** How Spring's JpaTransactionManager wraps a failure to get a connection. */
+    private static CannotCreateTransactionException openFailure(SQLException cause) {
+        return new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+                new RuntimeException("Unable to acquire JDBC Connection", cause));
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.carins.integration;
 
+import com.example.carins.config.JwtUtil;
 import com.example.carins.model.User;
 import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.repo.OwnerRepository;
 import com.example.carins.repo.UserRepository;
+import com.example.carins.support.StatementBudget;
 import com.example.carins.web.dto.LoginDto;
 import com.example.carins.web.dto.RegisterDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -20,7 +28,10 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.stream.IntStream;
+
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -43,6 +54,18 @@ class AuthControllerIntegrationTest {
     @Autowired
     private OwnerRepository ownerRepository;
 
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -59,6 +82,8 @@ class AuthControllerIntegrationTest {
                 .build();
 
         userRepository.deleteAll();
+        claimRepository.deleteAll();
+        policyRepository.deleteAll();
         carRepository.deleteAll();
         ownerRepository.deleteAll();
     }
@@ -114,4 +139,48 @@ class AuthControllerIntegrationTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(jsonPath("$.error").value("Authentication Error"));
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void register_StatementBudgetIndependentOfUserCount(int rows) throws Exception {
+        seedUsers(rows);
+        RegisterDto registerDto = new RegisterDto("newuser", "password123", "new@example.com");
+
+        StatementBudget.perform(mockMvc, entityManager, post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDto)), 3)
+                .andExpect(status().isCreated());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void login_StatementBudgetIndependentOfUserCount(int rows) throws Exception {
+        seedUsers(rows);
+        userRepository.save(new User("testuser", passwordEncoder.encode("password123"), "test@example.com", User.Role.USER));
+        LoginDto loginDto = new LoginDto("testuser", "password123");
+
+        StatementBudget.perform(mockMvc, entityManager, post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)), 2)
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void verify_WithJwtCookie_SingleStatement(int rows) throws Exception {
+        seedUsers(rows);
+        User user = userRepository.save(new User("testuser", "encoded", "test@example.com", User.Role.USER));
+        Cookie jwtCookie = new Cookie("jwt-token", jwtUtil.generateToken(user));
+
+        StatementBudget.perform(mockMvc, entityManager, get("/api/auth/verify").cookie(jwtCookie), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authenticated").value(true));
+    }
+
+    private void seedUsers(int rows) {
+        String encodedPassword = passwordEncoder.encode("password");
+        userRepository.saveAll(IntStream.range(0, rows)
+                .mapToObj(i -> new User("user" + i, encodedPassword, "user" + i + "@example.com", User.Role.USER))
+                .toList());
+    }
 }
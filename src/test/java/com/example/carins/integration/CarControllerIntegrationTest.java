@@ -1,20 +1,27 @@
 package com.example.carins.integration;
 
 import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.model.Owner;
 import com.example.carins.model.User;
 import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.repo.OwnerRepository;
 import com.example.carins.repo.UserRepository;
+import com.example.carins.support.StatementBudget;
 import com.example.carins.web.dto.ClaimCreateDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
@@ -25,6 +32,7 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.stream.IntStream;
 
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
@@ -50,9 +58,15 @@ class CarControllerIntegrationTest {
     @Autowired
     private InsurancePolicyRepository policyRepository;
 
+    @Autowired
+    private ClaimRepository claimRepository;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -69,6 +83,7 @@ class CarControllerIntegrationTest {
                 .apply(springSecurity())
                 .build();
 
+        claimRepository.deleteAll();
         policyRepository.deleteAll();
         carRepository.deleteAll();
         ownerRepository.deleteAll();
@@ -218,4 +233,78 @@ class CarControllerIntegrationTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Resource Not Found"));
     }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void getCars_SingleStatementRegardlessOfRowCount(int rows) throws Exception {
+        IntStream.range(0, rows).forEach(i -> {
+            Owner owner = ownerRepository.save(new Owner("Owner " + i, "owner" + i + "@example.com"));
+            carRepository.save(new Car("VINBUDGET" + i, "Toyota", "Camry", 2020, owner));
+        });
+
+        StatementBudget.perform(mockMvc, entityManager, get("/api/cars").with(user(testUser)), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(rows));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void insuranceValidity_TwoStatementsRegardlessOfPolicyCount(int rows) throws Exception {
+        Car car = carWithPolicies(rows);
+
+        StatementBudget.perform(mockMvc, entityManager, get("/api/cars/{carId}/insurance-valid", car.getId())
+                        .param("date", "2024-06-01")
+                        .with(user(testUser)), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void getClaims_TwoStatementsRegardlessOfClaimCount(int rows) throws Exception {
+        Car car = carWithClaims(rows);
+
+        StatementBudget.perform(mockMvc, entityManager, get("/api/cars/{carId}/claims", car.getId())
+                        .with(user(testUser)), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(rows));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void getCarHistory_ETagAndThreeLoadsRegardlessOfEventCount(int rows) throws Exception {
+        Car car = carWithPolicies(rows);
+        IntStream.range(0, rows).forEach(i -> claimRepository.save(
+                new Claim(car, LocalDate.of(2024, 6, 1), "Claim " + i, new BigDecimal("100.00"))));
+
+        String eTag = StatementBudget.perform(mockMvc, entityManager, get("/api/cars/{carId}/history", car.getId())
+                        .with(user(testUser)), 4)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.events.length()").value(rows * 3))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        StatementBudget.perform(mockMvc, entityManager, get("/api/cars/{carId}/history", car.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .with(user(testUser)), 4)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    private Car carWithPolicies(int policies) {
+        Owner owner = ownerRepository.save(new Owner("John Doe", "john@example.com"));
+        Car car = carRepository.save(new Car("VIN123456789", "Toyota", "Camry", 2020, owner));
+        IntStream.range(0, policies).forEach(i -> policyRepository.save(new InsurancePolicy(car, "Provider " + i,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))));
+        return car;
+    }
+
+    private Car carWithClaims(int claims) {
+        Owner owner = ownerRepository.save(new Owner("John Doe", "john@example.com"));
+        Car car = carRepository.save(new Car("VIN123456789", "Toyota", "Camry", 2020, owner));
+        IntStream.range(0, claims).forEach(i -> claimRepository.save(
+                new Claim(car, LocalDate.of(2024, 6, 1), "Claim " + i, new BigDecimal("100.00"))));
+        return car;
+    }
 }
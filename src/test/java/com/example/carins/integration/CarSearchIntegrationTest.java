@@ -0,0 +1,160 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.support.StatementBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class CarSearchIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Owner owner;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        owner = ownerRepository.save(new Owner("Ioana Radu", "ioana.radu@example.com"));
+        Owner other = ownerRepository.save(new Owner("Paul Matei", "paul.matei@example.com"));
+        Car insured = carRepository.save(new Car("VINSEARCH01", "Searchmake", "Alpha", 2018, owner));
+        carRepository.save(new Car("VINSEARCH02", "Searchmake", "Alpha", 2021, owner));
+        carRepository.save(new Car("VINSEARCH03", "Searchmake", "Beta", 2021, owner));
+        carRepository.save(new Car("VINSEARCH04", "Searchmake", "Alpha", 2022, other));
+        policyRepository.save(new InsurancePolicy(insured, "Allianz",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    void search_CombinedFilters_OneQuery() throws Exception {
+        StatementBudget.perform(mockMvc, entityManager, get("/api/cars/search")
+                                .param("make", "Searchmake")
+                                .param("model", "Alpha")
+                                .param("minYear", "2020")
+                                .param("ownerId", String.valueOf(owner.getId()))
+                                .with(user("tester").roles("USER")), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cars[*].vin", contains("VINSEARCH02")))
+                .andExpect(jsonPath("$.cars[0].owner.name").value("Ioana Radu"))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextAfter").doesNotExist());
+    }
+
+    @Test
+    void search_ActivePolicyOn_OnlyInsuredCars() throws Exception {
+        mockMvc.perform(get("/api/cars/search")
+                        .param("make", "Searchmake")
+                        .param("activePolicyOn", "2025-06-01")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cars[*].vin", contains("VINSEARCH01")));
+
+        mockMvc.perform(get("/api/cars/search")
+                        .param("make", "Searchmake")
+                        .param("activePolicyOn", "2026-06-01")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cars").isEmpty());
+    }
+
+    @Test
+    void search_Paging_FollowsNextAfter() throws Exception {
+        JsonNode first = page(null);
+        assertTrue(first.get("hasMore").asBoolean());
+        assertEquals(2, first.get("cars").size());
+
+        JsonNode second = page(first.get("nextAfter").asText());
+        assertFalse(second.get("hasMore").asBoolean());
+        assertEquals(2, second.get("cars").size());
+        assertTrue(second.get("cars").get(0).get("id").asLong() > first.get("nextAfter").asLong());
+        assertEquals("VINSEARCH04", second.get("cars").get(1).get("vin").asText());
+    }
+
+    @Test
+    void search_InvalidParameters_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/cars/search").param("minYear", "2022").param("maxYear", "2020")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/cars/search").param("limit", "0")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/cars/search").param("activePolicyOn", "01/06/2025")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void vinSearch_Prefix_InVinOrder() throws Exception {
+        mockMvc.perform(get("/api/cars/vin-search").param("vin", "vinsearch0")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].car.vin",
+                        contains("VINSEARCH01", "VINSEARCH02", "VINSEARCH03", "VINSEARCH04")))
+                .andExpect(jsonPath("$[0].errors").value(0));
+
+        mockMvc.perform(get("/api/cars/vin-search").param("vin", "VI")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode page(String after) throws Exception {
+        var request = get("/api/cars/search").param("make", "Searchmake").param("limit", "2")
+                .with(user("tester").roles("USER"));
+        if (after != null) {
+            request.param("after", after);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.DeletedEntityRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class ChangeFeedIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private DeletedEntityRepository deletedEntityRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Car car;
+    private InsurancePolicy policy;
+    private Claim claim;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        claimRepository.deleteAll();
+        policyRepository.deleteAll();
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+        deletedEntityRepository.deleteAll();
+
+        Owner owner = ownerRepository.save(new Owner("John Doe", "john@example.com"));
+        car = carRepository.save(new Car("VINCHANGES1", "Toyota", "Camry", 2020, owner));
+        policy = policyRepository.save(new InsurancePolicy(car, "GEICO",
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        claim = claimRepository.save(new Claim(car, LocalDate.of(2024, 6, 1), "Scratch", new BigDecimal("100.00")));
+    }
+
+    @Test
+    void getChanges_NoToken_ReturnsAllWritesInOrderWithPayloads() throws Exception {
+        JsonNode feed = changes(null, 100);
+
+        assertFalse(feed.get("hasMore").asBoolean());
+        JsonNode changes = feed.get("changes");
+        assertEquals(List.of("OWNER", "CAR", "POLICY", "CLAIM"), entities(changes));
+        assertEquals("UPSERT", changes.get(1).get("operation").asText());
+        assertEquals(car.getId(), changes.get(1).get("id").asLong());
+        assertEquals("VINCHANGES1", changes.get(1).get("payload").get("vin").asText());
+        assertEquals("John Doe", changes.get(1).get("payload").get("owner").get("name").asText());
+        assertEquals(car.getId(), changes.get(2).get("payload").get("carId").asLong());
+        assertEquals("Scratch", changes.get(3).get("payload").get("description").asText());
+    }
+
+    @Test
+    void getChanges_SmallPages_WalkEveryChangeOnce() throws Exception {
+        List<String> seen = new ArrayList<>();
+        String token = null;
+        JsonNode feed;
+        do {
+            feed = changes(token, 1);
+            seen.addAll(entities(feed.get("changes")));
+            token = feed.get("nextToken").asText();
+        } while (feed.get("hasMore").asBoolean());
+
+        assertEquals(List.of("OWNER", "CAR", "POLICY", "CLAIM"), seen);
+
+        JsonNode caughtUp = changes(token, 1);
+        assertEquals(0, caughtUp.get("changes").size());
+        assertEquals(token, caughtUp.get("nextToken").asText());
+    }
+
+    @Test
+    void getChanges_AfterCarDeleted_ReturnsTombstones() throws Exception {
+        String token = changes(null, 100).get("nextToken").asText();
+
+        mockMvc.perform(delete("/api/cars/{carId}", car.getId()).with(user("tester").roles("USER")))
+                .andExpect(status().isNoContent());
+
+        JsonNode changes = changes(token, 100).get("changes");
+        assertEquals(List.of("POLICY", "CLAIM", "CAR"), entities(changes));
+        changes.forEach(change -> {
+            assertEquals("DELETE", change.get("operation").asText());
+            assertTrue(change.get("payload").isNull());
+        });
+        assertEquals(policy.getId(), changes.get(0).get("id").asLong());
+        assertEquals(claim.getId(), changes.get(1).get("id").asLong());
+        assertEquals(car.getId(), changes.get(2).get("id").asLong());
+    }
+
+    @Test
+    void getChanges_InvalidToken_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/changes").param("since", "not-a-token").with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid change token: not-a-token"));
+    }
+
+    @Test
+    void getChanges_LimitTooLarge_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/changes").param("limit", "5000").with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode changes(String since, int limit) throws Exception {
+        var builder = get("/api/changes").param("limit", String.valueOf(limit)).with(user("tester").roles("USER"));
+        if (since != null) {
+            builder.param("since", since);
+        }
+        String body = mockMvc.perform(builder)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<String> entities(JsonNode changes) {
+        List<String> entities = new ArrayList<>();
+        changes.forEach(change -> entities.add(change.get("entity").asText()));
+        return entities;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.ClaimCreateDto;
+import com.example.carins.web.dto.UpdateOwnerDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * A cached copy stays valid exactly as long as nothing it was built from has changed.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Owner owner;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        owner = ownerRepository.save(new Owner("Maria Pop", "maria.pop@example.com"));
+        car = carRepository.saveAndFlush(new Car("VINCOND01", "Dacia", "Duster", 2023, owner));
+    }
+
+    @Test
+    void getCarHistory_ClaimAdded_CachedCopyNoLongerValid() throws Exception {
+        String eTag = eTagOf(get("/api/cars/{carId}/history", car.getId()));
+
+        mockMvc.perform(post("/api/cars/{carId}/claims", car.getId())
+                        .with(user("tester").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ClaimCreateDto(LocalDate.of(2025, 2, 3), "Hail damage", new BigDecimal("900.00")))))
+                .andExpect(status().isCreated());
+
+        String newETag = mockMvc.perform(get("/api/cars/{carId}/history", car.getId())
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    void getCar_OwnerRenamed_CachedCopyNoLongerValid() throws Exception {
+        String eTag = eTagOf(get("/api/cars/{carId}", car.getId()));
+
+        mockMvc.perform(put("/api/owners/{ownerId}", owner.getId())
+                        .with(user("tester").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateOwnerDto("Maria Popescu", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/cars/{carId}", car.getId())
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owner.name").value("Maria Popescu"));
+    }
+
+    @Test
+    void getCar_WeakOrListedTag_StillMatches() throws Exception {
+        String eTag = eTagOf(get("/api/cars/{carId}", car.getId()));
+
+        mockMvc.perform(get("/api/cars/{carId}", car.getId())
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\", W/" + eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getCar_UnknownId_NotFoundEvenWithIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/api/cars/{carId}", 987654L)
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String eTagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
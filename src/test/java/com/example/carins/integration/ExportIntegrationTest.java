@@ -0,0 +1,183 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not {@code @Transactional}: the export stream runs on another thread in its own transaction, so the
+ * fixture has to be committed.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ExportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private List<InsurancePolicy> policies;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        deleteAll();
+
+        Owner owner = ownerRepository.save(new Owner("Jane, \"JJ\" Doe", "jane@example.com"));
+        Car car = carRepository.save(new Car("VINEXPORT1", "Dacia", "Logan", 2019, owner));
+        policies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            policies.add(policyRepository.save(new InsurancePolicy(car, "Provider " + i,
+                    LocalDate.of(2020 + i, 1, 1), LocalDate.of(2020 + i, 12, 31))));
+        }
+        claimRepository.save(new Claim(car, LocalDate.of(2021, 3, 4), "Broken mirror", new BigDecimal("120.50")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    @Test
+    void exportPolicies_NdjsonGzip_StreamsAllRowsInIdOrder() throws Exception {
+        MvcResult result = export(get("/api/export/policies").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        List<String> lines = gunzip(result.getResponse().getContentAsByteArray()).lines().toList();
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(policies.get(0).getId(), first.get("id").asLong());
+        assertEquals("Provider 0", first.get("provider").asText());
+        assertEquals("2020-01-01", first.get("startDate").asText());
+        assertTrue(first.hasNonNull("updatedAt"));
+    }
+
+    @Test
+    void exportPolicies_GzipRefusedByQuality_StreamsPlainRows() throws Exception {
+        MvcResult result = export(get("/api/export/policies").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"));
+
+        assertNull(result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(3, result.getResponse().getContentAsString().lines().count());
+    }
+
+    @Test
+    void exportPolicies_WildcardEncoding_StreamsGzip() throws Exception {
+        MvcResult result = export(get("/api/export/policies").header(HttpHeaders.ACCEPT_ENCODING, "br, *;q=0.5"));
+
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(3, gunzip(result.getResponse().getContentAsByteArray()).lines().count());
+    }
+
+    @Test
+    void exportPolicies_AfterIdWatermark_ReturnsOnlyNewerRows() throws Exception {
+        MvcResult result = export(get("/api/export/policies").param("afterId", String.valueOf(policies.get(0).getId())));
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals(policies.get(1).getId(), objectMapper.readTree(lines.get(0)).get("id").asLong());
+    }
+
+    @Test
+    void exportClaims_UpdatedSinceInFuture_ReturnsNothing() throws Exception {
+        MvcResult result = export(get("/api/export/claims")
+                .param("updatedSince", LocalDateTime.now().plusDays(1).toString()));
+
+        assertEquals("", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void exportCars_Csv_EscapesValuesAndWritesHeader() throws Exception {
+        MvcResult result = export(get("/api/export/cars").param("format", "csv"));
+
+        assertTrue(result.getResponse().getContentType().startsWith("text/csv"));
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals("id,vin,make,model,yearOfManufacture,ownerId,ownerName,ownerEmail,updatedAt", lines.get(0));
+        assertTrue(lines.get(1).contains(",VINEXPORT1,Dacia,Logan,2019,"));
+        assertTrue(lines.get(1).contains(",\"Jane, \"\"JJ\"\" Doe\",jane@example.com,"));
+    }
+
+    @Test
+    void export_UnknownDataset_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/export/users").with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult started = mockMvc.perform(builder.with(user("tester").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void deleteAll() {
+        claimRepository.deleteAll();
+        policyRepository.deleteAll();
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.support.StatementBudget;
+import com.example.carins.web.dto.InsurancePolicyCreateDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Every read endpoint must load what it serializes with a fixed number of statements, independent of
+ * how many cars, policies and claims are involved. Not {@code @Transactional}: with no session held open
+ * by the test or the request, any association the fetch plan misses fails serialization instead of being
+ * lazily loaded. The committed fixture lives in its own database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetchplan;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.open-in-view=false"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class FetchPlanIntegrationTest {
+
+    private static final int CARS = 3;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Owner owner;
+    private Car car;
+    private InsurancePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        deleteAll();
+
+        owner = ownerRepository.save(new Owner("John Doe", "john@example.com"));
+        for (int i = 0; i < CARS; i++) {
+            car = carRepository.save(new Car("VINFETCH" + i, "Toyota", "Camry", 2020, owner));
+            policy = policyRepository.save(new InsurancePolicy(car, "GEICO",
+                    LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+            claimRepository.save(new Claim(car, LocalDate.of(2024, 6, 1), "Scratch", new BigDecimal("100.00")));
+        }
+    }
+
+    @Test
+    void getCars_SingleStatement() throws Exception {
+        perform(get("/api/cars"), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].owner.name").value("John Doe"));
+    }
+
+    @Test
+    void getCarById_SingleStatement() throws Exception {
+        perform(get("/api/cars/{carId}", car.getId()), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.owner.email").value("john@example.com"));
+    }
+
+    @Test
+    void getCarsByOwner_TwoStatements() throws Exception {
+        perform(get("/api/owners/{ownerId}/cars", owner.getId()), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CARS))
+                .andExpect(jsonPath("$[0].owner.name").value("John Doe"));
+    }
+
+    @Test
+    void getPolicies_SingleStatement() throws Exception {
+        perform(get("/api/policies"), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CARS))
+                .andExpect(jsonPath("$[0].car.owner.name").value("John Doe"));
+    }
+
+    @Test
+    void getPolicyById_SingleStatement() throws Exception {
+        perform(get("/api/policies/{id}", policy.getId()), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.car.owner.name").value("John Doe"));
+    }
+
+    @Test
+    void getPoliciesByCar_SingleStatement() throws Exception {
+        perform(get("/api/policies/car/{carId}", car.getId()), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].car.vin").value(car.getVin()));
+    }
+
+    @Test
+    void createPolicy_LoadsCarWithOwnerAndInserts() throws Exception {
+        InsurancePolicyCreateDto dto = new InsurancePolicyCreateDto(car.getId(), "Allianz",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+        // The first histogram delta of the context also fetches its id block; measure a steady-state insert.
+        perform(post("/api/policies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)), Integer.MAX_VALUE)
+                .andExpect(status().isCreated());
+
+        perform(post("/api/policies")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)), 4)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.car.owner.name").value("John Doe"));
+    }
+
+    @Test
+    void getClaimsByCar_TwoStatements() throws Exception {
+        perform(get("/api/cars/{carId}/claims", car.getId()), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void getCarHistory_ETagAndThreeLoads() throws Exception {
+        perform(get("/api/cars/{carId}/history", car.getId()), 4)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getCarHistory_NotModified_SingleStatement() throws Exception {
+        String eTag = eTagOf(get("/api/cars/{carId}/history", car.getId()));
+
+        perform(get("/api/cars/{carId}/history", car.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag), 1)
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    void getCarById_NotModified_SingleStatement() throws Exception {
+        String eTag = eTagOf(get("/api/cars/{carId}", car.getId()));
+
+        perform(get("/api/cars/{carId}", car.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag), 1)
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getOwnerById_NotModified_SingleStatement() throws Exception {
+        String eTag = eTagOf(get("/api/owners/{ownerId}", owner.getId()));
+
+        perform(get("/api/owners/{ownerId}", owner.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag), 1)
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getPolicyById_NotModified_SingleStatement() throws Exception {
+        String eTag = eTagOf(get("/api/policies/{id}", policy.getId()));
+
+        perform(get("/api/policies/{id}", policy.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag), 1)
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getOwnerPortfolio_FourStatements() throws Exception {
+        perform(get("/api/owners/{ownerId}/portfolio", owner.getId()), 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cars.length()").value(CARS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        claimRepository.deleteAll();
+        policyRepository.deleteAll();
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+    }
+
+    private String eTagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return perform(request, Integer.MAX_VALUE)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, int maxStatements) throws Exception {
+        return StatementBudget.perform(mockMvc, entityManager, request.with(user("tester").roles("USER")), maxStatements);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Owner;
+import com.example.carins.repo.OwnerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idgeneration;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class IdGenerationIntegrationTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAll_UsesSequenceBlocksAndBatchedInserts() {
+        List<Owner> owners = IntStream.range(0, ROWS)
+                .mapToObj(i -> new Owner("Owner " + i, "batch" + i + "@example.com"))
+                .toList();
+
+        List<Owner> saved = transactionTemplate.execute(status -> ownerRepository.saveAll(owners));
+
+        assertNotNull(saved);
+        assertTrue(saved.stream().allMatch(owner -> owner.getId() >= 1000),
+                "Generated ids must not collide with seeded ids");
+        assertEquals(ROWS, saved.stream().map(Owner::getId).distinct().count());
+        assertTrue(statistics.getPrepareStatementCount() < ROWS / 10,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.carins.integration;
+
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.service.CarSearchService;
+import com.example.carins.support.SqlStatementRecorder;
+import com.example.carins.web.dto.CarSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each hot repository query, captures the SQL Hibernate generated for it and checks with
+ * {@code EXPLAIN} that Postgres answers it from the index created by the migrations. Sequential scans
+ * are disabled because the tables are nearly empty and would otherwise always win.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.carins.support.SqlStatementRecorder")
+@Testcontainers
+class IndexUsageIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("carinsurance_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    @Autowired
+    private CarSearchService carSearchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void existsActiveOnDate_UsesPolicyCarDatesIndex() {
+        String sql = capture(() -> policyRepository.existsActiveOnDate(1L, LocalDate.of(2024, 6, 1)));
+        assertUsesIndex(sql, "idx_policy_car_dates", "1", "2024-06-01", "2024-06-01");
+    }
+
+    @Test
+    void findByCarIdInOrderByStartDateAsc_UsesPolicyCarDatesIndex() {
+        String sql = capture(() -> policyRepository.findByCarIdInOrderByStartDateAsc(List.of(1L, 2L)));
+        assertUsesIndex(sql, "idx_policy_car_dates", "1", "2");
+    }
+
+    @Test
+    void findPoliciesExpiringOnDate_UsesPolicyEndDateIndex() {
+        String sql = capture(() -> policyRepository.findPoliciesExpiringOnDate(LocalDate.of(2024, 12, 31)));
+        assertUsesIndex(sql, "idx_policy_end_date", "2024-12-31");
+    }
+
+    @Test
+    void findByCarIdOrderByClaimDateDesc_UsesClaimCarDateIndex() {
+        String sql = capture(() -> claimRepository.findByCarIdOrderByClaimDateDesc(1L));
+        assertUsesIndex(sql, "idx_claim_car_date", "1");
+    }
+
+    @Test
+    void findByCarIdInOrderByClaimDateDesc_UsesClaimCarDateIndex() {
+        String sql = capture(() -> claimRepository.findByCarIdInOrderByClaimDateDesc(List.of(1L, 2L)));
+        assertUsesIndex(sql, "idx_claim_car_date", "1", "2");
+    }
+
+    @Test
+    void findByOwnerId_UsesCarOwnerIndex() {
+        String sql = capture(() -> carRepository.findByOwnerId(1L));
+        assertUsesIndex(sql, "idx_car_owner_id", "1");
+    }
+
+    @Test
+    void searchCars_MakeModelYear_UsesCarMakeModelYearIndex() {
+        String sql = capture(() -> carSearchService.search(
+                new CarSearchCriteria("Dacia", "Logan", 2020, 2020, null, null), null, 20));
+        assertUsesIndex(sql, "idx_car_make_model_year_id", "Dacia", "Logan", "2020", "2020", "21");
+    }
+
+    @Test
+    void searchCars_OwnerWithActivePolicy_UsesOwnerAndPolicyIndexes() {
+        String sql = capture(() -> carSearchService.search(
+                new CarSearchCriteria(null, null, null, null, 1L, LocalDate.of(2024, 6, 1)), 100L, 20));
+        assertUsesIndex(sql, "idx_car_owner_id", "1", "2024-06-01", "2024-06-01", "100", "21");
+        assertUsesIndex(sql, "idx_policy_car_dates", "1", "2024-06-01", "2024-06-01", "100", "21");
+    }
+
+    @Test
+    void findByVin_UsesUniqueVinIndex() {
+        String sql = capture(() -> carRepository.findByVin("VIN12345"));
+        assertUsesIndex(sql, "uk_car_vin", "VIN12345");
+    }
+
+    @Test
+    void findWithOwnerByVinStartingWith_UsesVinPatternIndex() {
+        String sql = capture(() -> carRepository.findWithOwnerByVinStartingWithOrderByVin("WVW", Limit.of(10)));
+        assertUsesIndex(sql, "idx_car_vin_pattern", "WVW%", "10");
+    }
+
+    @Test
+    void findVinCandidates_UsesVinTrigramIndex() {
+        String sql = capture(() -> carRepository.findVinCandidates("WVWZZZ1JZ3W386752", 100));
+        assertUsesIndex(sql, "idx_car_vin_trgm", "WVWZZZ1JZ3W386752", "WVWZZZ1JZ3W386752", "100");
+    }
+
+    private String capture(Runnable query) {
+        SqlStatementRecorder.clear();
+        query.run();
+        List<String> statements = SqlStatementRecorder.statements();
+        assertEquals(1, statements.size(), "Expected a single statement, got " + statements);
+        return statements.get(0);
+    }
+
+    private void assertUsesIndex(String sql, String indexName, String... parameters) {
+        String plan = explain(sql, parameters);
+        assertTrue(plan.contains(indexName), "Expected " + indexName + " in plan:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), "Unexpected sequential scan in plan:\n" + plan);
+    }
+
+    private String explain(String sql, String... parameters) {
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++index);
+            } else {
+                numbered.append(c);
+            }
+        }
+        assertEquals(parameters.length, index, "Parameter count mismatch for: " + sql);
+
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameters.length; i++) {
+            arguments.append(i == 0 ? "" : ", ").append('\'').append(parameters[i]).append('\'');
+        }
+        String execute = parameters.length == 0 ? "EXECUTE q" : "EXECUTE q(" + arguments + ")";
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                statement.execute("PREPARE q AS " + numbered);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + execute)) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("DEALLOCATE q");
+                statement.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+}
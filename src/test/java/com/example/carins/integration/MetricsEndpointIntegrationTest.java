@@ -0,0 +1,87 @@
+package com.example.carins.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.metrics.scrape-token=" + MetricsEndpointIntegrationTest.SCRAPE_TOKEN
+})
+@AutoConfigureWebMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointIntegrationTest {
+
+    static final String SCRAPE_TOKEN = "test-scrape-token";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    void prometheus_Anonymous_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_WrongToken_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_ScrapeToken_ReturnsMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer " + SCRAPE_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("application=\"car-insurance\"")));
+    }
+
+    @Test
+    void prometheus_RegularUser_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(user("tester").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_Admin_ReturnsMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(user("operator").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void scrapeToken_DoesNotAuthenticateTheApi() throws Exception {
+        mockMvc.perform(get("/api/cars").header(HttpHeaders.AUTHORIZATION, "Bearer " + SCRAPE_TOKEN))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void health_Anonymous_StaysOpen() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.support.StatementBudget;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Resolving a set of ids costs one query per chunk, however many ids are asked for.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class MultiGetIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Owner owner;
+    private Car first;
+    private Car second;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        owner = ownerRepository.save(new Owner("Dan Stan", "dan.stan@example.com"));
+        first = carRepository.save(new Car("VINMULTI01", "Ford", "Focus", 2019, owner));
+        second = carRepository.save(new Car("VINMULTI02", "Ford", "Kuga", 2022, owner));
+    }
+
+    @Test
+    void getCarsByIds_OneQueryWithOwners_MissingReported() throws Exception {
+        String ids = second.getId() + ",999999," + first.getId();
+
+        StatementBudget.perform(mockMvc, entityManager,
+                        get("/api/cars").param("ids", ids).with(user("tester").roles("USER")), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].vin", contains("VINMULTI02", "VINMULTI01")))
+                .andExpect(jsonPath("$.items[0].owner.name").value("Dan Stan"))
+                .andExpect(jsonPath("$.missingIds", contains(999999)));
+    }
+
+    @Test
+    void getCarsByIds_ManyIds_OneQueryPerChunk() throws Exception {
+        List<Long> carIds = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            carIds.add(carRepository.save(new Car("VINMULTIX" + i, "Dacia", "Sandero", 2020, owner)).getId());
+        }
+        String ids = carIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+
+        StatementBudget.perform(mockMvc, entityManager,
+                        get("/api/cars").param("ids", ids).with(user("tester").roles("USER")), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(300)))
+                .andExpect(jsonPath("$.missingIds", hasSize(0)));
+    }
+
+    @Test
+    void getOwnersByIds_AllMissing_StillOk() throws Exception {
+        mockMvc.perform(get("/api/owners").param("ids", "999998,999999")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.missingIds", contains(999998, 999999)));
+    }
+
+    @Test
+    void getPoliciesByIds_WithCarAndOwnerInOneQuery() throws Exception {
+        InsurancePolicy policy = policyRepository.save(new InsurancePolicy(first, "Groupama",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+
+        StatementBudget.perform(mockMvc, entityManager,
+                        get("/api/policies").param("ids", String.valueOf(policy.getId()))
+                                .with(user("tester").roles("USER")), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].provider").value("Groupama"))
+                .andExpect(jsonPath("$.items[0].car.owner.name").value("Dan Stan"));
+    }
+
+    @Test
+    void getCarsByIds_InvalidRequests_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/cars").param("ids", "").with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/cars").param("ids", "1,x").with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/cars").param("ids", "1").param("fields", "vin")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.web.dto.InsurancePolicyUpdateDto;
+import com.example.carins.web.dto.UpdateCarDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class OptimisticLockingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Car car;
+    private InsurancePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        Owner owner = ownerRepository.save(new Owner("Ann Lee", "ann.lee@example.com"));
+        car = carRepository.save(new Car("VINETAG01", "Skoda", "Octavia", 2022, owner));
+        policy = policyRepository.saveAndFlush(new InsurancePolicy(car, "Allianz",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    void getCar_ReturnsETagLedByVersion() throws Exception {
+        mockMvc.perform(get("/api/cars/{carId}", car.getId()).with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"0-")));
+    }
+
+    @Test
+    void updateCar_MatchingIfMatch_UpdatesAndReturnsNextETag() throws Exception {
+        mockMvc.perform(put("/api/cars/{carId}", car.getId())
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateCarDto(null, "Seat", null, null, null))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"1-")))
+                .andExpect(jsonPath("$.make").value("Seat"));
+    }
+
+    @Test
+    void updateCar_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/api/cars/{carId}", car.getId())
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateCarDto(null, "Seat", null, null, null))))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Precondition Failed"));
+    }
+
+    @Test
+    void updatePolicy_WithoutIfMatch_StillUpdates() throws Exception {
+        InsurancePolicyUpdateDto dto = new InsurancePolicyUpdateDto(null, "Groupama",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1));
+
+        mockMvc.perform(put("/api/policies/{id}", policy.getId())
+                        .with(user("tester").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"1-")))
+                .andExpect(jsonPath("$.provider").value("Groupama"));
+    }
+
+    @Test
+    void updatePolicy_StaleIfMatch_ReturnsPreconditionFailedAndKeepsPolicy() throws Exception {
+        InsurancePolicyUpdateDto dto = new InsurancePolicyUpdateDto(null, "Groupama",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2026, 1, 1));
+
+        mockMvc.perform(put("/api/policies/{id}", policy.getId())
+                        .with(user("tester").roles("USER"))
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/policies/{id}", policy.getId()).with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"0-")))
+                .andExpect(jsonPath("$.provider").value("Allianz"));
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.ProviderStatsDeltaRepository;
+import com.example.carins.repo.ProviderStatsRangeRepository;
+import com.example.carins.service.ProviderHistogram;
+import com.example.carins.web.dto.InsurancePolicyCreateDto;
+import com.example.carins.web.dto.InsurancePolicyUpdateDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The rebuild works in its own transactions, so nothing here runs in a test transaction; its own database and a
+ * separate year per test keep the committed policies apart.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:providerstats;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class ProviderReportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ProviderHistogram providerHistogram;
+
+    @Autowired
+    private ProviderStatsRangeRepository rangeRepository;
+
+    @Autowired
+    private ProviderStatsDeltaRepository deltaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        car = carRepository.findByVin("VINHISTO01").orElseGet(() -> {
+            Owner owner = ownerRepository.save(new Owner("Ilie Pop", "ilie.pop@example.com"));
+            return carRepository.save(new Car("VINHISTO01", "Renault", "Clio", 2021, owner));
+        });
+    }
+
+    @Test
+    void activeCounts_FollowPolicyCreateUpdateAndDelete() throws Exception {
+        createPolicy("Histo Alpha", "2031-01-10", "2031-03-31");
+        long shortPolicy = createPolicy("Histo Alpha", "2031-02-01", "2031-02-28");
+        long betaPolicy = createPolicy("Histo Beta", "2031-01-20", "2031-06-30");
+
+        activeCounts("2031-02-15", "2031-01-05")
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].date").value("2031-01-05"))
+                .andExpect(jsonPath("$[0].totalActive").value(0))
+                .andExpect(jsonPath("$[0].providers", hasSize(0)))
+                .andExpect(jsonPath("$[1].totalActive").value(3))
+                .andExpect(jsonPath("$[1].providers[0].provider").value("Histo Alpha"))
+                .andExpect(jsonPath("$[1].providers[0].activePolicies").value(2))
+                .andExpect(jsonPath("$[1].providers[0].marketShare").value(0.6667))
+                .andExpect(jsonPath("$[1].providers[1].provider").value("Histo Beta"))
+                .andExpect(jsonPath("$[1].providers[1].marketShare").value(0.3333));
+
+        mockMvc.perform(put("/api/policies/{id}", betaPolicy)
+                        .with(user("tester").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new InsurancePolicyUpdateDto(null, "Histo Alpha",
+                                LocalDate.of(2031, 1, 1), LocalDate.of(2031, 6, 30)))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/policies/{id}", shortPolicy).with(user("tester").roles("USER")))
+                .andExpect(status().isNoContent());
+
+        activeCounts("2031-01-05", "2031-02-15", "2031-06-30")
+                .andExpect(jsonPath("$[0].providers[0].activePolicies").value(1))
+                .andExpect(jsonPath("$[1].totalActive").value(2))
+                .andExpect(jsonPath("$[1].providers", hasSize(1)))
+                .andExpect(jsonPath("$[1].providers[0].marketShare").value(1.0))
+                .andExpect(jsonPath("$[2].providers[0].activePolicies").value(1));
+    }
+
+    @Test
+    void monthlyFlows_CountNewAndExpiredPoliciesPerMonth() throws Exception {
+        createPolicy("Histo Gamma", "2032-01-15", "2032-03-31");
+        createPolicy("Histo Gamma", "2032-03-01", "2032-03-31");
+        createPolicy("Histo Delta", "2032-02-01", "2032-02-29");
+
+        mockMvc.perform(get("/api/reports/providers/monthly")
+                        .param("from", "2032-01")
+                        .param("to", "2032-04")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)))
+                .andExpect(jsonPath("$[0].month").value("2032-01"))
+                .andExpect(jsonPath("$[0].providers[0].provider").value("Histo Gamma"))
+                .andExpect(jsonPath("$[0].providers[0].newPolicies").value(1))
+                .andExpect(jsonPath("$[0].providers[0].expiredPolicies").value(0))
+                .andExpect(jsonPath("$[1].providers", hasSize(1)))
+                .andExpect(jsonPath("$[1].providers[0].provider").value("Histo Delta"))
+                .andExpect(jsonPath("$[1].providers[0].newPolicies").value(1))
+                .andExpect(jsonPath("$[1].providers[0].expiredPolicies").value(1))
+                .andExpect(jsonPath("$[2].providers[0].newPolicies").value(1))
+                .andExpect(jsonPath("$[2].providers[0].expiredPolicies").value(2))
+                .andExpect(jsonPath("$[3].month").value("2032-04"))
+                .andExpect(jsonPath("$[3].providers", hasSize(0)));
+    }
+
+    @Test
+    void rebuild_CountsPoliciesWrittenAroundTheServices() throws Exception {
+        createPolicy("Histo Epsilon", "2033-05-01", "2033-08-31");
+        policyRepository.save(new InsurancePolicy(car, "Histo Epsilon",
+                LocalDate.of(2033, 4, 1), LocalDate.of(2033, 6, 30)));
+
+        activeCounts("2033-06-15")
+                .andExpect(jsonPath("$[0].providers[0].activePolicies").value(1));
+
+        mockMvc.perform(post("/api/reports/providers/rebuild").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+
+        activeCounts("2033-04-15", "2033-06-15", "2033-07-01")
+                .andExpect(jsonPath("$[0].providers[0].activePolicies").value(1))
+                .andExpect(jsonPath("$[1].providers[0].activePolicies").value(2))
+                .andExpect(jsonPath("$[2].providers[0].activePolicies").value(1));
+    }
+
+    @Test
+    void rebuild_AsUser_ReturnsForbidden() throws Exception {
+        mockMvc.perform(post("/api/reports/providers/rebuild").with(user("tester").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void fold_MovesDeltasIntoTheDailyRowsWithoutChangingCounts() throws Exception {
+        createPolicy("Histo Eta", "2034-03-01", "2034-05-31");
+        long moved = createPolicy("Histo Eta", "2034-04-01", "2034-04-30");
+        mockMvc.perform(put("/api/policies/{id}", moved)
+                        .with(user("tester").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new InsurancePolicyUpdateDto(null, "Histo Eta",
+                                LocalDate.of(2034, 1, 1), LocalDate.of(2034, 7, 31)))))
+                .andExpect(status().isOk());
+
+        providerHistogram.fold();
+
+        assertTrue(deltaRepository.findByProvider("Histo Eta").isEmpty());
+        activeCounts("2034-01-15", "2034-04-15", "2034-07-15")
+                .andExpect(jsonPath("$[0].providers[0].activePolicies").value(1))
+                .andExpect(jsonPath("$[1].providers[0].activePolicies").value(2))
+                .andExpect(jsonPath("$[2].providers[0].activePolicies").value(1));
+    }
+
+    @Test
+    void rebuild_SkipsProviderLockedElsewhereUntilReleased() throws Exception {
+        createPolicy("Histo Zeta", "2035-01-01", "2035-12-31");
+        providerHistogram.fold();
+        policyRepository.save(new InsurancePolicy(car, "Histo Zeta",
+                LocalDate.of(2035, 3, 1), LocalDate.of(2035, 9, 30)));
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherInstance = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    assertTrue(rangeRepository.tryLock("Histo Zeta").isPresent());
+                    locked.countDown();
+                    try {
+                        assertTrue(release.await(30, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        try {
+            mockMvc.perform(post("/api/reports/providers/rebuild").with(user("admin").roles("ADMIN")))
+                    .andExpect(status().isOk());
+            assertFalse(otherInstance.isDone());
+            activeCounts("2035-06-15")
+                    .andExpect(jsonPath("$[0].providers[0].activePolicies").value(1));
+        } finally {
+            release.countDown();
+        }
+        otherInstance.get(10, TimeUnit.SECONDS);
+
+        mockMvc.perform(post("/api/reports/providers/rebuild").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+        activeCounts("2035-06-15")
+                .andExpect(jsonPath("$[0].providers[0].activePolicies").value(2));
+    }
+
+    @Test
+    void monthlyFlows_ToBeforeFrom_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/reports/providers/monthly")
+                        .param("from", "2032-05")
+                        .param("to", "2032-04")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createPolicy(String provider, String startDate, String endDate) throws Exception {
+        InsurancePolicyCreateDto dto = new InsurancePolicyCreateDto(car.getId(), provider,
+                LocalDate.parse(startDate), LocalDate.parse(endDate));
+        String body = mockMvc.perform(post("/api/policies")
+                        .with(user("tester").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private ResultActions activeCounts(String... dates) throws Exception {
+        return mockMvc.perform(get("/api/reports/providers/active")
+                        .param("dates", String.join(",", dates))
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk());
+    }
+}
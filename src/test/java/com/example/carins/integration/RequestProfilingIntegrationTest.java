@@ -0,0 +1,121 @@
+package com.example.carins.integration;
+
+import com.example.carins.config.RequestProfilingFilter;
+import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.profiling.enabled=true",
+        "app.profiling.sample-rate=1.0"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class RequestProfilingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private RequestProfilingFilter requestProfilingFilter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    private MockMvc mockMvc;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .addFilters(requestProfilingFilter)
+                .apply(springSecurity())
+                .build();
+
+        claimRepository.deleteAll();
+        policyRepository.deleteAll();
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+
+        Owner owner = ownerRepository.save(new Owner("John Doe", "john@example.com"));
+        car = carRepository.save(new Car("VINPROFILE1", "Toyota", "Camry", 2020, owner));
+        policyRepository.save(new InsurancePolicy(car, "GEICO", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        claimRepository.save(new Claim(car, LocalDate.of(2024, 6, 1), "Scratch", new BigDecimal("100.00")));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void sampledRequest_ReportsStatementsDbAndSerializationTime() throws Exception {
+        mockMvc.perform(get("/api/cars/{carId}/history", car.getId()).with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vin").value("VINPROFILE1"))
+                .andExpect(header().string("Server-Timing", containsString("db;dur=")))
+                .andExpect(header().string("Server-Timing", matchesPattern(".*desc=\"[1-9]\\d* statements\".*")))
+                .andExpect(header().string("Server-Timing", containsString("serialization;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+    }
+
+    @Test
+    void sampledStreamedList_WrittenThroughWithoutServerTiming() throws Exception {
+        mockMvc.perform(get("/api/cars").with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].vin").value("VINPROFILE1"))
+                .andExpect(header().doesNotExist("Server-Timing"));
+    }
+
+    @Test
+    void sampledMultiGet_OnListPath_StillCarriesServerTiming() throws Exception {
+        mockMvc.perform(get("/api/cars").param("ids", String.valueOf(car.getId())).with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Server-Timing"));
+    }
+
+    @Test
+    void sampledErrorResponse_StillCarriesServerTiming() throws Exception {
+        mockMvc.perform(get("/api/cars/{carId}/history", 999_999L).with(user("tester").roles("USER")))
+                .andExpect(status().isNotFound())
+                .andExpect(header().exists("Server-Timing"));
+    }
+}
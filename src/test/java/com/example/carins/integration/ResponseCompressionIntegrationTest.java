@@ -0,0 +1,132 @@
+package com.example.carins.integration;
+
+import com.example.carins.config.JwtUtil;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.model.User;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.UserRepository;
+import com.example.carins.service.CustomUserDetailsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compression happens in Tomcat, not in the dispatcher servlet, so this runs against a real server. Its own
+ * database keeps the committed fixture away from the other tests.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+class ResponseCompressionIntegrationTest {
+
+    private static final int CARS = 300;
+    private static final String USERNAME = "compression";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+    private Owner owner;
+
+    @BeforeEach
+    void setUp() {
+        if (!userRepository.existsByUsername(USERNAME)) {
+            userRepository.save(new User(USERNAME, passwordEncoder.encode("password"), "compression@example.com",
+                    User.Role.USER));
+            owner = ownerRepository.save(new Owner("Gzip Owner", "gzip@example.com"));
+            for (int i = 0; i < CARS; i++) {
+                carRepository.save(new Car("VINGZIP" + i, "Dacia", "Logan", 2020, owner));
+            }
+        }
+        owner = carRepository.findByVin("VINGZIP0").orElseThrow().getOwner();
+        token = jwtUtil.generateToken(userDetailsService.loadUserByUsername(USERNAME));
+    }
+
+    @Test
+    void largeList_AcceptingGzip_IsStreamedCompressed() throws Exception {
+        HttpResponse<byte[]> compressed = get("/api/cars", "gzip");
+        HttpResponse<byte[]> plain = get("/api/cars", null);
+
+        assertEquals(200, compressed.statusCode());
+        assertEquals("gzip", compressed.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        JsonNode cars = objectMapper.readTree(gunzip(compressed.body()));
+        assertTrue(cars.size() >= CARS, "got " + cars.size() + " cars");
+        assertTrue(compressed.body().length * 5 < plain.body().length,
+                compressed.body().length + " compressed bytes vs " + plain.body().length);
+    }
+
+    @Test
+    void largeList_WithoutAcceptEncoding_IsPlainJson() throws Exception {
+        HttpResponse<byte[]> response = get("/api/cars", null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertTrue(objectMapper.readTree(response.body()).size() >= CARS);
+    }
+
+    @Test
+    void smallResponse_BelowThreshold_IsNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get("/api/owners/" + owner.getId(), "gzip");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+        assertEquals("Gzip Owner", objectMapper.readTree(response.body()).get("name").asText());
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.COOKIE, "jwt-token=" + token);
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.carins.integration;
+
+import com.example.carins.config.SlowQuery;
+import com.example.carins.config.SlowQueryLog;
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "app.slow-query.enabled=true",
+        "app.slow-query.threshold-ms=0"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class SlowQueryIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private ClaimRepository claimRepository;
+
+    private MockMvc mockMvc;
+    private Car car;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        claimRepository.deleteAll();
+        policyRepository.deleteAll();
+        carRepository.deleteAll();
+        ownerRepository.deleteAll();
+
+        Owner owner = ownerRepository.save(new Owner("John Doe", "john@example.com"));
+        car = carRepository.save(new Car("VINSLOW1", "Toyota", "Camry", 2020, owner));
+        policyRepository.save(new InsurancePolicy(car, "GEICO", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+        entityManager.flush();
+        entityManager.clear();
+        slowQueryLog.clear();
+    }
+
+    @Test
+    void repositoryStatement_RecordedWithCallSiteParametersAndPlan() throws Exception {
+        policyRepository.existsActiveOnDate(car.getId(), LocalDate.of(2024, 6, 1));
+
+        SlowQuery slowQuery = find("InsurancePolicyRepository.existsActiveOnDate");
+        assertTrue(slowQuery.getParameters().contains(String.valueOf(car.getId())));
+        assertTrue(slowQuery.getParameters().contains("2024-06-01"));
+        assertNotNull(awaitPlan(slowQuery));
+    }
+
+    @Test
+    void stringParameters_AreRedacted() {
+        carRepository.findByVin("VINSLOW1");
+
+        SlowQuery slowQuery = find("CarRepository.findByVin");
+        assertEquals(List.of("<redacted string, length 8>"), slowQuery.getParameters());
+    }
+
+    @Test
+    void statementsOutsideRepositories_AreIgnored() {
+        entityManager.createNativeQuery("SELECT 1").getSingleResult();
+
+        assertEquals(0, slowQueryLog.total());
+    }
+
+    @Test
+    void actuatorEndpoint_ListsSlowQueries() throws Exception {
+        carRepository.findByVin("VINSLOW1");
+
+        mockMvc.perform(get("/actuator/slowqueries").with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.thresholdMs").value(0))
+                .andExpect(jsonPath("$.queries[0].repositoryMethod").value("CarRepository.findByVin"));
+    }
+
+    @Test
+    void actuatorEndpoint_Delete_OnlyForAdmins() throws Exception {
+        carRepository.findByVin("VINSLOW1");
+
+        mockMvc.perform(delete("/actuator/slowqueries").with(user("tester").roles("USER")))
+                .andExpect(status().isForbidden());
+        assertTrue(slowQueryLog.total() > 0);
+
+        mockMvc.perform(delete("/actuator/slowqueries").with(user("operator").roles("ADMIN")))
+                .andExpect(status().is2xxSuccessful());
+        assertTrue(slowQueryLog.recent().isEmpty());
+    }
+
+    private SlowQuery find(String repositoryMethod) {
+        return slowQueryLog.recent().stream()
+                .filter(query -> query.getRepositoryMethod().equals(repositoryMethod))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No slow query recorded for " + repositoryMethod));
+    }
+
+    private static String awaitPlan(SlowQuery slowQuery) throws InterruptedException {
+        for (int i = 0; i < 50 && slowQuery.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        return slowQuery.getPlan();
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.support.SqlStatementRecorder;
+import com.example.carins.support.StatementBudget;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * A {@code fields=} request selects only the chosen columns and joins only the associations they go through.
+ */
+@SpringBootTest
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+@Transactional
+class SparseFieldsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private MockMvc mockMvc;
+    private Owner owner;
+    private Car car;
+    private InsurancePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        owner = ownerRepository.save(new Owner("Ana Ionescu", "ana.ionescu@example.com"));
+        car = carRepository.save(new Car("VINSPARSE01", "Skoda", "Octavia", 2021, owner));
+        policy = policyRepository.save(new InsurancePolicy(car, "Allianz",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    void getCars_IdAndVin_OnlyThoseFieldsWithoutJoin() throws Exception {
+        StatementBudget.perform(mockMvc, entityManager,
+                        get("/api/cars").param("fields", "id,vin").with(user("tester").roles("USER")), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].vin", hasItem("VINSPARSE01")))
+                .andExpect(jsonPath("$[0].make").doesNotExist())
+                .andExpect(jsonPath("$[0].owner").doesNotExist());
+
+        assertNoJoin();
+    }
+
+    @Test
+    void getCar_OwnerId_ReadFromForeignKey() throws Exception {
+        StatementBudget.perform(mockMvc, entityManager,
+                        get("/api/cars/{id}", car.getId()).param("fields", "vin,owner.id")
+                                .with(user("tester").roles("USER")), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vin").value("VINSPARSE01"))
+                .andExpect(jsonPath("$.owner.id").value(owner.getId()))
+                .andExpect(jsonPath("$.owner.name").doesNotExist());
+
+        assertNoJoin();
+    }
+
+    @Test
+    void getPolicy_NestedFields_JoinedAndNested() throws Exception {
+        mockMvc.perform(get("/api/policies/{id}", policy.getId())
+                        .param("fields", "car.vin,car.owner.name,endDate")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.car.vin").value("VINSPARSE01"))
+                .andExpect(jsonPath("$.car.owner.name").value("Ana Ionescu"))
+                .andExpect(jsonPath("$.car.owner.email").doesNotExist())
+                .andExpect(jsonPath("$.endDate").value("2025-12-31"))
+                .andExpect(jsonPath("$.provider").doesNotExist());
+    }
+
+    @Test
+    void getPoliciesByCar_Dates_NoJoin() throws Exception {
+        StatementBudget.perform(mockMvc, entityManager,
+                        get("/api/policies/car/{carId}", car.getId()).param("fields", "startDate,endDate")
+                                .with(user("tester").roles("USER")), 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].startDate").value("2025-01-01"))
+                .andExpect(jsonPath("$[0].car").doesNotExist());
+
+        assertNoJoin();
+    }
+
+    @Test
+    void getOwnerCars_ObjectName_SelectsAllItsFields() throws Exception {
+        mockMvc.perform(get("/api/owners/{ownerId}/cars", owner.getId())
+                        .param("fields", "vin,owner")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].owner.email").value("ana.ionescu@example.com"))
+                .andExpect(jsonPath("$[0].model").doesNotExist());
+    }
+
+    @Test
+    void getOwner_SparseETag_DiffersFromFullAndRevalidates() throws Exception {
+        String full = mockMvc.perform(get("/api/owners/{ownerId}", owner.getId())
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String sparse = mockMvc.perform(get("/api/owners/{ownerId}", owner.getId())
+                        .param("fields", "name")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Ana Ionescu"))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(sparse);
+        assertNotEquals(full, sparse);
+        mockMvc.perform(get("/api/owners/{ownerId}", owner.getId())
+                        .param("fields", "name")
+                        .header(HttpHeaders.IF_NONE_MATCH, sparse)
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/owners/{ownerId}", owner.getId())
+                        .param("fields", "name")
+                        .header(HttpHeaders.IF_NONE_MATCH, full)
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCars_UnknownField_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/cars").param("fields", "id,secret")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPolicy_NotFound_WithFields() throws Exception {
+        mockMvc.perform(get("/api/policies/{id}", 999999L).param("fields", "provider")
+                        .with(user("tester").roles("USER")))
+                .andExpect(status().isNotFound());
+    }
+
+    /** The projection is the request's last statement; an ETag lookup before it may join. */
+    private static void assertNoJoin() {
+        List<String> statements = SqlStatementRecorder.statements();
+        String projection = statements.get(statements.size() - 1);
+        assertFalse(projection.toLowerCase().contains(" join "), projection);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarSearchService;
+import com.example.carins.web.dto.VinMatchDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fuzzy VIN lookup relies on pg_trgm, so it only runs against Postgres with the migrations applied.
+ */
+@SpringBootTest
+@Testcontainers
+@Transactional
+class VinSearchIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("carinsurance_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CarSearchService carSearchService;
+
+    @BeforeEach
+    void setUp() {
+        Owner owner = ownerRepository.save(new Owner("Radu Ene", "radu.ene@example.com"));
+        carRepository.save(new Car("WVWZZZ1JZ3W386752", "Volkswagen", "Golf", 2003, owner));
+        carRepository.save(new Car("WVWZZZ1JZ3W386799", "Volkswagen", "Golf", 2003, owner));
+        carRepository.save(new Car("VF1BB05CF22548123", "Renault", "Clio", 2002, owner));
+        carRepository.flush();
+    }
+
+    @Test
+    void fuzzy_OneTypo_FindsCar() {
+        List<VinMatchDto> matches = carSearchService.findByVinFuzzy("WVWZZZ1JZ3W386152", 1, 10);
+
+        assertEquals(List.of("WVWZZZ1JZ3W386752"), vins(matches));
+        assertEquals(1, matches.get(0).errors());
+        assertEquals("Radu Ene", matches.get(0).car().owner().name());
+    }
+
+    @Test
+    void fuzzy_TwoTypos_ClosestFirst() {
+        List<VinMatchDto> matches = carSearchService.findByVinFuzzy("WVWZZZ1JZ3W386798", 2, 10);
+
+        assertEquals(List.of("WVWZZZ1JZ3W386799", "WVWZZZ1JZ3W386752"), vins(matches));
+        assertEquals(List.of(1, 2), matches.stream().map(VinMatchDto::errors).toList());
+    }
+
+    @Test
+    void fuzzy_MissingCharacter_FindsCar() {
+        List<VinMatchDto> matches = carSearchService.findByVinFuzzy("VF1BB05CF2254812", 2, 10);
+
+        assertEquals(List.of("VF1BB05CF22548123"), vins(matches));
+    }
+
+    @Test
+    void prefix_UsesPatternIndexOrder() {
+        assertEquals(List.of("WVWZZZ1JZ3W386752", "WVWZZZ1JZ3W386799"),
+                vins(carSearchService.findByVinPrefix("wvwzzz", 10)));
+    }
+
+    private static List<String> vins(List<VinMatchDto> matches) {
+        return matches.stream().map(match -> match.car().vin()).toList();
+    }
+}
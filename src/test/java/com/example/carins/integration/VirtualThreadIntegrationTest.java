@@ -0,0 +1,142 @@
+package com.example.carins.integration;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.InsurancePolicy;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.service.CarService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtualthreads;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.minimum-idle=1",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@AutoConfigureWebMvc
+@ActiveProfiles("test")
+class VirtualThreadIntegrationTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int CONCURRENT_CALLS = 200;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private DataSource applicationDataSource;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private InsurancePolicyRepository policyRepository;
+
+    private HikariDataSource dataSource;
+    private Car car;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // The pool may sit behind a datasource-proxy wrapper when profiling or slow-query detection is on
+        dataSource = applicationDataSource.unwrap(HikariDataSource.class);
+
+        car = carRepository.findByVin("VINVTHREAD1").orElseGet(() -> {
+            Owner owner = ownerRepository.save(new Owner("Vera Thread", "vera.thread@example.com"));
+            Car saved = carRepository.save(new Car("VINVTHREAD1", "Skoda", "Octavia", 2022, owner));
+            policyRepository.save(new InsurancePolicy(saved, "Allianz", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+            return saved;
+        });
+    }
+
+    @Test
+    void scheduledWork_RunsOnVirtualThreadScheduler() {
+        assertInstanceOf(SimpleAsyncTaskScheduler.class, taskScheduler);
+    }
+
+    @Test
+    void concurrentCalls_OnVirtualThreads_SharePoolWithoutFailures() throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_CALLS; i++) {
+                results.add(executor.submit(() -> {
+                    assertTrue(Thread.currentThread().isVirtual());
+                    return carService.isInsuranceValid(car.getId(), "2024-06-01");
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        }
+
+        assertTrue(dataSource.getHikariPoolMXBean().getTotalConnections() <= POOL_SIZE);
+        assertEquals(0, dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+    }
+
+    @Test
+    void request_WhenPoolExhausted_ReturnsServiceUnavailable() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < POOL_SIZE; i++) {
+                held.add(dataSource.getConnection());
+            }
+
+            mockMvc.perform(get("/api/cars/{carId}/insurance-valid", car.getId())
+                            .param("date", "2024-06-01")
+                            .with(user("tester").roles("USER")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.error").value("Service Unavailable"));
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.repo.CarRepository;
+import com.example.carins.web.dto.VinMatchDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CarSearchServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @InjectMocks
+    private CarSearchService carSearchService;
+
+    @Test
+    void findByVinFuzzy_KeepsCandidatesWithinErrors_ClosestFirst() {
+        when(carRepository.findVinCandidates("WVWZZZ1JZ3W386752", CarSearchService.VIN_CANDIDATES)).thenReturn(List.of(
+                candidate(1L, "WVWZZZ1JZ3W386762"),
+                candidate(2L, "WVWZZZ1JZ3W386752"),
+                candidate(3L, "WVWZZZ1JZ3W381111")));
+        when(carRepository.findWithOwnerByIdIn(List.of(2L, 1L))).thenReturn(List.of(
+                car(1L, "WVWZZZ1JZ3W386762"), car(2L, "WVWZZZ1JZ3W386752")));
+
+        List<VinMatchDto> matches = carSearchService.findByVinFuzzy(" wvwzzz1jz3w386752 ", 2, 10);
+
+        assertEquals(List.of("WVWZZZ1JZ3W386752", "WVWZZZ1JZ3W386762"),
+                matches.stream().map(match -> match.car().vin()).toList());
+        assertEquals(List.of(0, 1), matches.stream().map(VinMatchDto::errors).toList());
+    }
+
+    @Test
+    void findByVinFuzzy_NoCloseCandidates_SkipsLoadingCars() {
+        when(carRepository.findVinCandidates(any(), anyInt())).thenReturn(List.of(candidate(3L, "WVWZZZ1JZ3W381111")));
+
+        assertTrue(carSearchService.findByVinFuzzy("WVWZZZ1JZ3W386752", 1, 10).isEmpty());
+        verify(carRepository, never()).findWithOwnerByIdIn(any());
+    }
+
+    @Test
+    void findByVinPrefix_Normalized() {
+        when(carRepository.findWithOwnerByVinStartingWithOrderByVin("WVW", Limit.of(5)))
+                .thenReturn(List.of(car(1L, "WVWZZZ1JZ3W386752")));
+
+        List<VinMatchDto> matches = carSearchService.findByVinPrefix("wvw", 5);
+
+        assertEquals(1, matches.size());
+        assertEquals(0, matches.get(0).errors());
+    }
+
+    @Test
+    void vinLookup_InvalidInput_ThrowsValidationException() {
+        assertThrows(ValidationException.class, () -> carSearchService.findByVinPrefix("WV", 5));
+        assertThrows(ValidationException.class, () -> carSearchService.findByVinPrefix("WVW%", 5));
+        assertThrows(ValidationException.class, () -> carSearchService.findByVinFuzzy("WVWZ", 1, 5));
+        assertThrows(ValidationException.class, () -> carSearchService.findByVinFuzzy("WVWZZZ", 3, 5));
+        verifyNoInteractions(carRepository);
+    }
+
+    @Test
+    void editDistance_StopsAboveMax() {
+        assertEquals(0, CarSearchService.editDistance("ABCDE", "ABCDE", 2));
+        assertEquals(1, CarSearchService.editDistance("ABCDE", "ABXDE", 2));
+        assertEquals(2, CarSearchService.editDistance("ABCDE", "BCDEF", 2));
+        assertEquals(3, CarSearchService.editDistance("ABCDE", "VWXYZ", 2));
+        assertEquals(3, CarSearchService.editDistance("ABC", "ABCDEFG", 2));
+    }
+
+    private static CarRepository.VinCandidate candidate(Long id, String vin) {
+        return new CarRepository.VinCandidate() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getVin() {
+                return vin;
+            }
+        };
+    }
+
+    private static Car car(Long id, String vin) {
+        Owner owner = new Owner("Owner " + id, "owner" + id + "@example.com");
+        owner.setId(id);
+        Car car = new Car(vin, "Volkswagen", "Golf", 2003, owner);
+        car.setId(id);
+        return car;
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.carins.service;
 
+import com.example.carins.exception.PreconditionFailedException;
 import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.exception.ValidationException;
 import com.example.carins.model.Car;
 import com.example.carins.model.Claim;
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.model.Owner;
+import com.example.carins.model.TrackedEntity;
 import com.example.carins.repo.CarRepository;
 import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.DeletedEntityRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.repo.OwnerRepository;
 import com.example.carins.web.dto.CarHistoryDto;
@@ -18,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -46,11 +50,21 @@ class CarServiceTest {
     @Mock
     private OwnerRepository ownerRepository;
     
+    @Mock
+    private DeletedEntityRepository deletedEntityRepository;
+    
+    @Mock
+    private JsonArrayWriter jsonArrayWriter;
+    
+    @Mock
+    private ProviderHistogram providerHistogram;
+    
     private CarService carService;
     
     @BeforeEach
     void setUp() {
-        carService = new CarService(carRepository, policyRepository, claimRepository, ownerRepository);
+        carService = new CarService(carRepository, policyRepository, claimRepository, ownerRepository,
+                ParallelReadExecutor.sequential(), deletedEntityRepository, jsonArrayWriter, providerHistogram);
     }
     
     @Test
@@ -120,19 +134,19 @@ class CarServiceTest {
         Car car = new Car("VIN123", "Toyota", "Camry", 2020, owner);
         car.setId(carId);
         
-        when(carRepository.findById(carId)).thenReturn(Optional.of(car));
+        when(carRepository.findWithOwnerById(carId)).thenReturn(Optional.of(car));
 
         Car result = carService.getCarById(carId);
 
         assertEquals(carId, result.getId());
         assertEquals("VIN123", result.getVin());
-        verify(carRepository).findById(carId);
+        verify(carRepository).findWithOwnerById(carId);
     }
     
     @Test
     void getCarById_InvalidId_ThrowsResourceNotFoundException() {
         Long carId = 999L;
-        when(carRepository.findById(carId)).thenReturn(Optional.empty());
+        when(carRepository.findWithOwnerById(carId)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, 
                 () -> carService.getCarById(carId));
@@ -164,17 +178,17 @@ class CarServiceTest {
         
         UpdateCarDto updateDto = new UpdateCarDto("VIN456", "Honda", "Civic", 2021, null);
         
-        when(carRepository.findById(carId)).thenReturn(Optional.of(existingCar));
+        when(carRepository.findWithOwnerById(carId)).thenReturn(Optional.of(existingCar));
         when(carRepository.findByVin("VIN456")).thenReturn(Optional.empty());
         when(policyRepository.findByCarId(carId)).thenReturn(Collections.emptyList());
-        when(carRepository.save(any(Car.class))).thenReturn(existingCar);
+        when(carRepository.saveAndFlush(any(Car.class))).thenReturn(existingCar);
 
-        Car result = carService.updateCar(carId, updateDto);
+        Car result = carService.updateCar(carId, updateDto, null);
 
         assertEquals("VIN456", result.getVin());
         assertEquals("Honda", result.getMake());
-        verify(carRepository).findById(carId);
-        verify(carRepository).save(any(Car.class));
+        verify(carRepository).findWithOwnerById(carId);
+        verify(carRepository).saveAndFlush(any(Car.class));
     }
     
     @Test
@@ -189,14 +203,33 @@ class CarServiceTest {
         
         UpdateCarDto updateDto = new UpdateCarDto("VIN456", null, null, null, null);
         
-        when(carRepository.findById(carId)).thenReturn(Optional.of(existingCar));
+        when(carRepository.findWithOwnerById(carId)).thenReturn(Optional.of(existingCar));
         when(carRepository.findByVin("VIN456")).thenReturn(Optional.of(duplicateCar));
 
         ValidationException exception = assertThrows(ValidationException.class, 
-                () -> carService.updateCar(carId, updateDto));
+                () -> carService.updateCar(carId, updateDto, null));
         assertEquals("Car with VIN VIN456 already exists", exception.getMessage());
     }
     
+    @Test
+    void updateCar_StaleVersion_ThrowsPreconditionFailedException() {
+        Long carId = 1L;
+        Owner owner = new Owner("John Doe", "john@example.com");
+        Car existingCar = new Car("VIN123", "Toyota", "Camry", 2020, owner);
+        existingCar.setId(carId);
+        existingCar.setVersion(2L);
+        
+        UpdateCarDto updateDto = new UpdateCarDto(null, "Honda", null, null, null);
+        
+        when(carRepository.findWithOwnerById(carId)).thenReturn(Optional.of(existingCar));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, 
+                () -> carService.updateCar(carId, updateDto, 1L));
+        assertEquals("Car 1 has version 2, not 1. Reload it and retry.", exception.getMessage());
+        assertEquals("Toyota", existingCar.getMake());
+        verify(carRepository, never()).saveAndFlush(any(Car.class));
+    }
+    
     @Test
     void deleteCar_ValidId_DeletesCarAndRelatedData() {
         Long carId = 1L;
@@ -205,7 +238,9 @@ class CarServiceTest {
         car.setId(carId);
         
         InsurancePolicy policy = new InsurancePolicy(car, "GEICO", LocalDate.now(), LocalDate.now().plusDays(365));
+        policy.setId(10L);
         Claim claim = new Claim(car, LocalDate.now(), "Test claim", new BigDecimal("1000"));
+        claim.setId(20L);
         
         when(carRepository.findById(carId)).thenReturn(Optional.of(car));
         when(policyRepository.findByCarId(carId)).thenReturn(List.of(policy));
@@ -216,9 +251,13 @@ class CarServiceTest {
         verify(carRepository).findById(carId);
         verify(policyRepository).findByCarId(carId);
         verify(policyRepository).deleteAll(List.of(policy));
+        verify(providerHistogram).remove(ProviderHistogram.Span.of(policy));
         verify(claimRepository).findByCarIdOrderByClaimDateDesc(carId);
         verify(claimRepository).deleteAll(List.of(claim));
         verify(carRepository).delete(car);
+        verify(deletedEntityRepository).recordDeletions(TrackedEntity.POLICY, List.of(10L));
+        verify(deletedEntityRepository).recordDeletions(TrackedEntity.CLAIM, List.of(20L));
+        verify(deletedEntityRepository).recordDeletions(TrackedEntity.CAR, List.of(carId));
     }
     
     @Test
@@ -360,4 +399,50 @@ class CarServiceTest {
         assertEquals(carId, result.carId());
         assertTrue(result.events().isEmpty());
     }
+
+    @Test
+    void getCarHistory_ParallelFetch_MergesAllResults() {
+        CarService parallelCarService = parallelCarService();
+        Long carId = 1L;
+        Owner owner = new Owner("John Doe", "john@example.com");
+        Car car = new Car("VIN123", "Toyota", "Camry", 2020, owner);
+        car.setId(carId);
+
+        InsurancePolicy policy = new InsurancePolicy(car, "GEICO",
+                                                   LocalDate.of(2024, 1, 1),
+                                                   LocalDate.of(2024, 12, 31));
+
+        Claim claim = new Claim(car, LocalDate.of(2024, 6, 1),
+                               "Minor accident", new BigDecimal("1500.00"));
+        claim.setCreatedAt(LocalDateTime.of(2024, 6, 1, 10, 0));
+
+        when(carRepository.findById(carId)).thenReturn(Optional.of(car));
+        when(policyRepository.findByCarId(carId)).thenReturn(List.of(policy));
+        when(claimRepository.findByCarIdOrderByClaimDateDesc(carId)).thenReturn(List.of(claim));
+
+        CarHistoryDto result = parallelCarService.getCarHistory(carId);
+
+        assertEquals(carId, result.carId());
+        assertEquals(3, result.events().size());
+        assertEquals(LocalDate.of(2024, 1, 1), result.events().get(0).date());
+        assertEquals("CLAIM", result.events().get(1).type());
+        assertEquals(LocalDate.of(2024, 12, 31), result.events().get(2).date());
+    }
+
+    @Test
+    void getCarHistory_ParallelFetchCarNotFound_ThrowsException() {
+        CarService parallelCarService = parallelCarService();
+        Long carId = 999L;
+        when(carRepository.findById(carId)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> parallelCarService.getCarHistory(carId));
+        assertEquals("Car not found with id: 999", exception.getMessage());
+    }
+
+    private CarService parallelCarService() {
+        ParallelReadExecutor executor = new ParallelReadExecutor(mock(PlatformTransactionManager.class), true);
+        return new CarService(carRepository, policyRepository, claimRepository, ownerRepository, executor, deletedEntityRepository,
+                jsonArrayWriter, providerHistogram);
+    }
 }
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -34,11 +35,14 @@ class ClaimServiceTest {
     @Mock
     private CarRepository carRepository;
     
+    @Mock
+    private JsonArrayWriter jsonArrayWriter;
+    
     private ClaimService claimService;
     
     @BeforeEach
     void setUp() {
-        claimService = new ClaimService(claimRepository, carRepository);
+        claimService = new ClaimService(claimRepository, carRepository, jsonArrayWriter);
     }
     
     @Test
@@ -166,6 +170,21 @@ class ClaimServiceTest {
         verify(carRepository).existsById(carId);
         verify(claimRepository, never()).findByCarIdOrderByClaimDateDesc(any());
     }
+
+    @Test
+    void writeClaimsByCarId_CarNotFound_ThrowsBeforeWriting() throws Exception {
+        Long carId = 999L;
+        when(carRepository.existsById(carId)).thenReturn(false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> claimService.writeClaimsByCarId(carId, out));
+        assertEquals("Car not found with id: 999", exception.getMessage());
+
+        assertEquals(0, out.size());
+        verify(claimRepository, never()).streamByCarIdOrderByClaimDateDesc(any());
+        verifyNoInteractions(jsonArrayWriter);
+    }
     
     @Test
     void getClaimsByCarId_NoClaims_ReturnsEmptyList() {
@@ -0,0 +1,63 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FieldSelectionTest {
+
+    @Test
+    void parse_ObjectName_SelectsAllItsFieldsInCatalogOrder() {
+        FieldSelection selection = FieldSelection.parse(FieldCatalog.CARS, "owner, vin,id,vin");
+
+        assertEquals(List.of("id", "vin", "owner.id", "owner.name", "owner.email"), selection.getPaths());
+        assertEquals("id+vin+owner.id+owner.name+owner.email", selection.fingerprint());
+    }
+
+    @Test
+    void parse_UnknownField_ThrowsValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> FieldSelection.parse(FieldCatalog.OWNERS, "id,password"));
+
+        assertEquals("Unknown field 'password'. Available fields: id, name, email", exception.getMessage());
+    }
+
+    @Test
+    void parse_NoFields_ThrowsValidationException() {
+        assertThrows(ValidationException.class, () -> FieldSelection.parse(FieldCatalog.CARS, " , "));
+    }
+
+    @Test
+    void jpql_SelectsOnlyChosenPaths() {
+        FieldSelection selection = FieldSelection.parse(FieldCatalog.POLICIES, "endDate,startDate");
+
+        assertEquals("SELECT e.startDate, e.endDate FROM InsurancePolicy e", selection.jpql(null));
+        assertEquals("SELECT e.startDate, e.endDate FROM InsurancePolicy e WHERE e.car.id = :value",
+                selection.jpql(FieldCatalog.POLICIES.getParentPath()));
+    }
+
+    @Test
+    void toJson_NestsDottedPaths() {
+        FieldSelection selection = FieldSelection.parse(FieldCatalog.POLICIES, "id,car.vin,car.owner.name,endDate");
+        Tuple row = mock(Tuple.class);
+        when(row.get(0)).thenReturn(7L);
+        when(row.get(1)).thenReturn("VIN123");
+        when(row.get(2)).thenReturn("John Doe");
+        when(row.get(3)).thenReturn(LocalDate.of(2025, 12, 31));
+
+        Map<String, Object> json = selection.toJson(row);
+
+        assertEquals(Map.of(
+                "id", 7L,
+                "car", Map.of("vin", "VIN123", "owner", Map.of("name", "John Doe")),
+                "endDate", LocalDate.of(2025, 12, 31)), json);
+        assertEquals(List.of("id", "car", "endDate"), List.copyOf(json.keySet()));
+    }
+}
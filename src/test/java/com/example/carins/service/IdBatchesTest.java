@@ -0,0 +1,62 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import com.example.carins.web.dto.MultiGetDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdBatchesTest {
+
+    private final List<List<Long>> queries = new ArrayList<>();
+
+    /** Pretends every even id exists. */
+    private List<Long> evenIds(List<Long> chunk) {
+        queries.add(List.copyOf(chunk));
+        return chunk.stream().filter(id -> id % 2 == 0).toList();
+    }
+
+    @Test
+    void load_KeepsRequestOrderAndReportsMissing() {
+        MultiGetDto<String> result = IdBatches.load(Arrays.asList(8L, 3L, 2L, 8L, null),
+                this::evenIds, Function.identity(), id -> "item" + id);
+
+        assertEquals(List.of("item8", "item2"), result.items());
+        assertEquals(List.of(3L), result.missingIds());
+        assertEquals(List.of(List.of(8L, 3L, 2L)), queries);
+    }
+
+    @Test
+    void load_LargeSet_OneQueryPerChunk() {
+        List<Long> ids = LongStream.rangeClosed(1, IdBatches.MAX_IDS).boxed().toList();
+
+        MultiGetDto<Long> result = IdBatches.load(ids, this::evenIds, Function.identity(), Function.identity());
+
+        assertEquals(IdBatches.MAX_IDS / 2, result.items().size());
+        assertEquals(IdBatches.MAX_IDS / 2, result.missingIds().size());
+        assertEquals((IdBatches.MAX_IDS + IdBatches.CHUNK_SIZE - 1) / IdBatches.CHUNK_SIZE, queries.size());
+        assertTrue(queries.stream().allMatch(chunk -> chunk.size() <= IdBatches.CHUNK_SIZE));
+    }
+
+    @Test
+    void load_NoIds_ThrowsValidationException() {
+        assertThrows(ValidationException.class,
+                () -> IdBatches.load(List.of(), this::evenIds, Function.identity(), Function.identity()));
+        assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    void load_TooManyIds_ThrowsValidationException() {
+        List<Long> ids = LongStream.rangeClosed(1, IdBatches.MAX_IDS + 1).boxed().toList();
+
+        assertThrows(ValidationException.class,
+                () -> IdBatches.load(ids, this::evenIds, Function.identity(), Function.identity()));
+        assertTrue(queries.isEmpty());
+    }
+}
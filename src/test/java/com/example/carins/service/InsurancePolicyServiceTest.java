@@ -1,10 +1,13 @@
 package com.example.carins.service;
 
+import com.example.carins.exception.PreconditionFailedException;
 import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.model.Car;
 import com.example.carins.model.InsurancePolicy;
 import com.example.carins.model.Owner;
+import com.example.carins.model.TrackedEntity;
 import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.DeletedEntityRepository;
 import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.web.dto.InsurancePolicyCreateDto;
 import com.example.carins.web.dto.InsurancePolicyUpdateDto;
@@ -32,6 +35,12 @@ class InsurancePolicyServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private DeletedEntityRepository deletedEntityRepository;
+
+    @Mock
+    private ProviderHistogram providerHistogram;
+
     @InjectMocks
     private InsurancePolicyService policyService;
 
@@ -75,20 +84,21 @@ class InsurancePolicyServiceTest {
 
     @Test
     void createPolicy_WithValidData_ShouldReturnSavedPolicy() {
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carRepository.findWithOwnerById(1L)).thenReturn(Optional.of(testCar));
         when(policyRepository.save(any(InsurancePolicy.class))).thenReturn(testPolicy);
 
         InsurancePolicy result = policyService.createPolicy(createDto);
 
         assertNotNull(result);
         assertEquals("State Farm", result.getProvider());
-        verify(carRepository).findById(1L);
+        verify(carRepository).findWithOwnerById(1L);
         verify(policyRepository).save(any(InsurancePolicy.class));
+        verify(providerHistogram).add(ProviderHistogram.Span.of(testPolicy));
     }
 
     @Test
     void createPolicy_WithInvalidCarId_ShouldThrowResourceNotFoundException() {
-        when(carRepository.findById(1L)).thenReturn(Optional.empty());
+        when(carRepository.findWithOwnerById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
@@ -96,7 +106,7 @@ class InsurancePolicyServiceTest {
         );
 
         assertEquals("Car not found with id: 1", exception.getMessage());
-        verify(carRepository).findById(1L);
+        verify(carRepository).findWithOwnerById(1L);
         verify(policyRepository, never()).save(any());
     }
 
@@ -152,61 +162,89 @@ class InsurancePolicyServiceTest {
 
     @Test
     void updatePolicy_WithValidData_ShouldReturnUpdatedPolicy() {
-        when(policyRepository.findById(1L)).thenReturn(Optional.of(testPolicy));
-        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
-        when(policyRepository.save(any(InsurancePolicy.class))).thenReturn(testPolicy);
+        when(policyRepository.findByIdWithCarAndOwner(1L)).thenReturn(Optional.of(testPolicy));
+        when(carRepository.findWithOwnerById(1L)).thenReturn(Optional.of(testCar));
+        when(policyRepository.saveAndFlush(any(InsurancePolicy.class))).thenReturn(testPolicy);
 
-        InsurancePolicy result = policyService.updatePolicy(1L, updateDto);
+        InsurancePolicy result = policyService.updatePolicy(1L, updateDto, null);
 
         assertNotNull(result);
-        verify(policyRepository).findById(1L);
-        verify(carRepository).findById(1L);
-        verify(policyRepository).save(testPolicy);
+        verify(policyRepository).findByIdWithCarAndOwner(1L);
+        verify(carRepository).findWithOwnerById(1L);
+        verify(policyRepository).saveAndFlush(testPolicy);
     }
 
     @Test
     void updatePolicy_WithInvalidId_ShouldThrowResourceNotFoundException() {
-        when(policyRepository.findById(1L)).thenReturn(Optional.empty());
+        when(policyRepository.findByIdWithCarAndOwner(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
-                () -> policyService.updatePolicy(1L, updateDto)
+                () -> policyService.updatePolicy(1L, updateDto, null)
         );
 
         assertEquals("Insurance policy not found with id: 1", exception.getMessage());
-        verify(policyRepository).findById(1L);
-        verify(policyRepository, never()).save(any());
+        verify(policyRepository).findByIdWithCarAndOwner(1L);
+        verify(policyRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updatePolicy_WithMatchingVersion_ShouldReturnUpdatedPolicy() {
+        testPolicy.setVersion(3L);
+        when(policyRepository.findByIdWithCarAndOwner(1L)).thenReturn(Optional.of(testPolicy));
+        when(carRepository.findWithOwnerById(1L)).thenReturn(Optional.of(testCar));
+        when(policyRepository.saveAndFlush(any(InsurancePolicy.class))).thenReturn(testPolicy);
+
+        assertNotNull(policyService.updatePolicy(1L, updateDto, 3L));
+        verify(policyRepository).saveAndFlush(testPolicy);
+    }
+
+    @Test
+    void updatePolicy_WithStaleVersion_ShouldThrowPreconditionFailedException() {
+        testPolicy.setVersion(4L);
+        when(policyRepository.findByIdWithCarAndOwner(1L)).thenReturn(Optional.of(testPolicy));
+
+        PreconditionFailedException exception = assertThrows(
+                PreconditionFailedException.class,
+                () -> policyService.updatePolicy(1L, updateDto, 3L)
+        );
+
+        assertEquals("Insurance policy 1 has version 4, not 3. Reload it and retry.", exception.getMessage());
+        verify(policyRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void updatePolicy_WithInvalidCarId_ShouldThrowResourceNotFoundException() {
-        when(policyRepository.findById(1L)).thenReturn(Optional.of(testPolicy));
-        when(carRepository.findById(1L)).thenReturn(Optional.empty());
+        when(policyRepository.findByIdWithCarAndOwner(1L)).thenReturn(Optional.of(testPolicy));
+        when(carRepository.findWithOwnerById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
-                () -> policyService.updatePolicy(1L, updateDto)
+                () -> policyService.updatePolicy(1L, updateDto, null)
         );
 
         assertEquals("Car not found with id: 1", exception.getMessage());
-        verify(policyRepository).findById(1L);
-        verify(carRepository).findById(1L);
-        verify(policyRepository, never()).save(any());
+        verify(policyRepository).findByIdWithCarAndOwner(1L);
+        verify(carRepository).findWithOwnerById(1L);
+        verify(policyRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void deletePolicy_WithValidId_ShouldDeletePolicy() {
-        when(policyRepository.existsById(1L)).thenReturn(true);
+        when(policyRepository.findById(1L)).thenReturn(Optional.of(testPolicy));
 
         policyService.deletePolicy(1L);
 
-        verify(policyRepository).existsById(1L);
-        verify(policyRepository).deleteById(1L);
+        verify(policyRepository).findById(1L);
+        verify(policyRepository).delete(testPolicy);
+        verify(providerHistogram).remove(new ProviderHistogram.Span("State Farm", testPolicy.getStartDate(),
+                testPolicy.getEndDate()));
+        verify(deletedEntityRepository).recordDeletions(TrackedEntity.POLICY, List.of(1L));
     }
 
     @Test
     void deletePolicy_WithInvalidId_ShouldThrowResourceNotFoundException() {
-        when(policyRepository.existsById(1L)).thenReturn(false);
+        when(policyRepository.findById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(
                 ResourceNotFoundException.class,
@@ -214,7 +252,8 @@ class InsurancePolicyServiceTest {
         );
 
         assertEquals("Insurance policy not found with id: 1", exception.getMessage());
-        verify(policyRepository).existsById(1L);
-        verify(policyRepository, never()).deleteById(any());
+        verify(policyRepository).findById(1L);
+        verify(policyRepository, never()).delete(any());
+        verifyNoInteractions(providerHistogram);
     }
 }
@@ -0,0 +1,67 @@
+package com.example.carins.service;
+
+import com.example.carins.model.Car;
+import com.example.carins.model.Owner;
+import com.example.carins.web.dto.CarDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JsonArrayWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private EntityManager entityManager;
+    private JsonArrayWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        writer = new JsonArrayWriter(objectMapper, entityManager);
+    }
+
+    @Test
+    void write_MapsEveryItemIntoOneArray() throws Exception {
+        Owner owner = new Owner("John Doe", "john@example.com");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = writer.write(Stream.of(new Car("VIN1", "Toyota", "Camry", 2020, owner),
+                new Car("VIN2", "Honda", "Civic", 2021, owner)), CarDto::from, out);
+
+        assertEquals(2, written);
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, array.size());
+        assertEquals("VIN2", array.get(1).get("vin").asText());
+        assertEquals("John Doe", array.get(1).get("owner").get("name").asText());
+    }
+
+    @Test
+    void write_EmptyStream_WritesEmptyArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, writer.write(Stream.empty(), Function.identity(), out));
+
+        assertEquals("[]", out.toString());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void write_ClearsPersistenceContextEveryBatch() throws Exception {
+        int rows = JsonArrayWriter.CLEAR_EVERY * 2 + 1;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(IntStream.range(0, rows).boxed(), Function.identity(), out);
+
+        assertEquals(rows, objectMapper.readTree(out.toByteArray()).size());
+        verify(entityManager, times(2)).clear();
+    }
+}
@@ -3,10 +3,18 @@ package com.example.carins.service;
 import com.example.carins.exception.ResourceNotFoundException;
 import com.example.carins.exception.ValidationException;
 import com.example.carins.model.Car;
+import com.example.carins.model.Claim;
+import com.example.carins.model.InsurancePolicy;
 import com.example.carins.model.Owner;
+import com.example.carins.model.TrackedEntity;
 import com.example.carins.repo.CarRepository;
+import com.example.carins.repo.ClaimRepository;
+import com.example.carins.repo.DeletedEntityRepository;
+import com.example.carins.repo.InsurancePolicyRepository;
 import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.UserRepository;
 import com.example.carins.web.dto.CreateOwnerDto;
+import com.example.carins.web.dto.OwnerPortfolioDto;
 import com.example.carins.web.dto.UpdateOwnerDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +22,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -30,12 +40,29 @@ class OwnerServiceTest {
     
     @Mock
     private CarRepository carRepository;
+
+    @Mock
+    private InsurancePolicyRepository policyRepository;
+
+    @Mock
+    private ClaimRepository claimRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DeletedEntityRepository deletedEntityRepository;
+
+    @Mock
+    private JsonArrayWriter jsonArrayWriter;
     
     private OwnerService ownerService;
     
     @BeforeEach
     void setUp() {
-        ownerService = new OwnerService(ownerRepository, carRepository);
+        UniquenessFilter uniquenessFilter = new UniquenessFilter(userRepository, ownerRepository, 1_000, 0.01);
+        ownerService = new OwnerService(ownerRepository, carRepository, policyRepository, claimRepository, uniquenessFilter,
+                deletedEntityRepository, jsonArrayWriter);
     }
     
     @Test
@@ -223,6 +250,7 @@ class OwnerServiceTest {
         verify(ownerRepository).findById(ownerId);
         verify(carRepository).findByOwnerId(ownerId);
         verify(ownerRepository).delete(owner);
+        verify(deletedEntityRepository).recordDeletions(TrackedEntity.OWNER, List.of(ownerId));
     }
     
     @Test
@@ -259,4 +287,54 @@ class OwnerServiceTest {
         verify(carRepository).findByOwnerId(ownerId);
         verify(ownerRepository, never()).delete(any());
     }
+
+    @Test
+    void getPortfolio_OwnerWithCars_GroupsPoliciesAndClaimsByCar() {
+        Long ownerId = 1L;
+        Owner owner = new Owner("John Doe", "john@example.com");
+        owner.setId(ownerId);
+        Car car1 = new Car("VIN123", "Toyota", "Camry", 2020, owner);
+        car1.setId(10L);
+        Car car2 = new Car("VIN456", "Honda", "Civic", 2021, owner);
+        car2.setId(20L);
+
+        InsurancePolicy policy = new InsurancePolicy(car1, "GEICO", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        Claim claim = new Claim(car2, LocalDate.of(2024, 6, 1), "Minor accident", new BigDecimal("1500.00"));
+
+        when(ownerRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(carRepository.findByOwnerId(ownerId)).thenReturn(List.of(car1, car2));
+        when(policyRepository.findByCarIdInOrderByStartDateAsc(List.of(10L, 20L))).thenReturn(List.of(policy));
+        when(claimRepository.findByCarIdInOrderByClaimDateDesc(List.of(10L, 20L))).thenReturn(List.of(claim));
+
+        OwnerPortfolioDto result = ownerService.getPortfolio(ownerId);
+
+        assertEquals(ownerId, result.ownerId());
+        assertEquals(2, result.cars().size());
+        assertEquals(1, result.cars().get(0).policies().size());
+        assertTrue(result.cars().get(0).claims().isEmpty());
+        assertTrue(result.cars().get(1).policies().isEmpty());
+        assertEquals(1, result.cars().get(1).claims().size());
+        verify(policyRepository, never()).findByCarId(any());
+        verify(claimRepository, never()).findByCarIdOrderByClaimDateDesc(any());
+    }
+
+    @Test
+    void getPortfolio_OwnerWithoutCars_SkipsPolicyAndClaimQueries() {
+        Long ownerId = 1L;
+        Owner owner = new Owner("John Doe", "john@example.com");
+        when(ownerRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(carRepository.findByOwnerId(ownerId)).thenReturn(Collections.emptyList());
+
+        OwnerPortfolioDto result = ownerService.getPortfolio(ownerId);
+
+        assertTrue(result.cars().isEmpty());
+        verifyNoInteractions(policyRepository, claimRepository);
+    }
+
+    @Test
+    void getPortfolio_OwnerNotFound_ThrowsException() {
+        when(ownerRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> ownerService.getPortfolio(999L));
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.carins.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ParallelReadExecutorTest {
+
+    @Test
+    void readGroup_Sequential_RunsInOneReadOnlyTransaction() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ParallelReadExecutor executor = new ParallelReadExecutor(transactionManager, false);
+
+        int total = executor.readGroup(() -> ParallelReadExecutor.await(executor.submit(() -> 1))
+                + ParallelReadExecutor.await(executor.submit(() -> 2)));
+
+        assertEquals(3, total);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void readGroup_Concurrent_OpensNoTransactionOfItsOwn() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ParallelReadExecutor executor = new ParallelReadExecutor(transactionManager, true);
+
+        int total = executor.readGroup(() -> ParallelReadExecutor.await(executor.submit(() -> 1))
+                + ParallelReadExecutor.await(executor.submit(() -> 2)));
+
+        assertEquals(3, total);
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void submit_Concurrent_SeesTheCallersRequestAttributes() {
+        ParallelReadExecutor executor = new ParallelReadExecutor(mock(PlatformTransactionManager.class), true);
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        try {
+            RequestAttributes seen = ParallelReadExecutor.await(
+                    executor.submit(RequestContextHolder::getRequestAttributes));
+
+            assertSame(attributes, seen);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
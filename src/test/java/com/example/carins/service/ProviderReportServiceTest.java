@@ -0,0 +1,136 @@
+package com.example.carins.service;
+
+import com.example.carins.exception.ValidationException;
+import com.example.carins.repo.ProviderDailyStatsRepository;
+import com.example.carins.repo.ProviderStatsDeltaRepository;
+import com.example.carins.web.dto.ProviderActiveCountsDto;
+import com.example.carins.web.dto.ProviderFlowDto;
+import com.example.carins.web.dto.ProviderMonthDto;
+import com.example.carins.web.dto.ProviderShareDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProviderReportServiceTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2025, 6, 1);
+    private static final LocalDate JUNE_2 = LocalDate.of(2025, 6, 2);
+
+    @Mock
+    private ProviderDailyStatsRepository statsRepository;
+
+    @Mock
+    private ProviderStatsDeltaRepository deltaRepository;
+
+    @InjectMocks
+    private ProviderReportService providerReportService;
+
+    @Test
+    void getActiveCounts_SharesPerDay_DaysWithoutPoliciesIncluded() {
+        ProviderDailyStatsRepository.ActiveCount allianz = activeCount(JUNE_1, "Allianz", 2);
+        ProviderDailyStatsRepository.ActiveCount groupama = activeCount(JUNE_1, "Groupama", 1);
+        when(statsRepository.findActiveOn(Set.of(JUNE_1, JUNE_2))).thenReturn(List.of(allianz, groupama));
+
+        List<ProviderActiveCountsDto> counts = providerReportService.getActiveCounts(List.of(JUNE_2, JUNE_1, JUNE_2));
+
+        assertEquals(List.of(
+                new ProviderActiveCountsDto(JUNE_1, 3, List.of(
+                        new ProviderShareDto("Allianz", 2, 0.6667),
+                        new ProviderShareDto("Groupama", 1, 0.3333))),
+                new ProviderActiveCountsDto(JUNE_2, 0, List.of())), counts);
+    }
+
+    @Test
+    void getActiveCounts_PendingDeltasAddedOnTop() {
+        ProviderDailyStatsRepository.ActiveCount allianz = activeCount(JUNE_1, "Allianz", 2);
+        when(statsRepository.findActiveOn(Set.of(JUNE_1, JUNE_2))).thenReturn(List.of(allianz));
+        ProviderStatsDeltaRepository.PendingSpan removed = pendingSpan("Allianz", JUNE_1, JUNE_1, -2);
+        ProviderStatsDeltaRepository.PendingSpan added = pendingSpan("Groupama", JUNE_1, LocalDate.of(2025, 6, 30), 1);
+        when(deltaRepository.findPending(JUNE_1, JUNE_2)).thenReturn(List.of(removed, added));
+
+        List<ProviderActiveCountsDto> counts = providerReportService.getActiveCounts(List.of(JUNE_1, JUNE_2));
+
+        assertEquals(List.of(
+                new ProviderActiveCountsDto(JUNE_1, 1, List.of(new ProviderShareDto("Groupama", 1, 1.0))),
+                new ProviderActiveCountsDto(JUNE_2, 1, List.of(new ProviderShareDto("Groupama", 1, 1.0)))), counts);
+    }
+
+    @Test
+    void getActiveCounts_NoDates_ThrowsValidationException() {
+        assertThrows(ValidationException.class, () -> providerReportService.getActiveCounts(List.of()));
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void getMonthlyFlows_EveryMonthInRange() {
+        ProviderDailyStatsRepository.MonthlyFlow flow = mock(ProviderDailyStatsRepository.MonthlyFlow.class);
+        when(flow.getYear()).thenReturn(2025);
+        when(flow.getMonth()).thenReturn(2);
+        when(flow.getProvider()).thenReturn("Allianz");
+        when(flow.getStarted()).thenReturn(4L);
+        when(flow.getEnded()).thenReturn(1L);
+        when(statsRepository.findMonthlyFlows(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31)))
+                .thenReturn(List.of(flow));
+
+        List<ProviderMonthDto> months = providerReportService.getMonthlyFlows(YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+
+        assertEquals(List.of(
+                new ProviderMonthDto(YearMonth.of(2025, 1), List.of()),
+                new ProviderMonthDto(YearMonth.of(2025, 2), List.of(new ProviderFlowDto("Allianz", 4, 1))),
+                new ProviderMonthDto(YearMonth.of(2025, 3), List.of())), months);
+    }
+
+    @Test
+    void getMonthlyFlows_PendingDeltasCountedInTheirMonths() {
+        ProviderStatsDeltaRepository.PendingSpan span =
+                pendingSpan("Allianz", LocalDate.of(2025, 1, 20), LocalDate.of(2025, 5, 31), 1);
+        when(deltaRepository.findPending(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31))).thenReturn(List.of(span));
+
+        List<ProviderMonthDto> months = providerReportService.getMonthlyFlows(YearMonth.of(2025, 1), YearMonth.of(2025, 3));
+
+        assertEquals(List.of(
+                new ProviderMonthDto(YearMonth.of(2025, 1), List.of(new ProviderFlowDto("Allianz", 1, 0))),
+                new ProviderMonthDto(YearMonth.of(2025, 2), List.of()),
+                new ProviderMonthDto(YearMonth.of(2025, 3), List.of())), months);
+    }
+
+    @Test
+    void getMonthlyFlows_RangeTooLong_ThrowsValidationException() {
+        YearMonth from = YearMonth.of(2015, 1);
+
+        assertDoesNotThrow(() -> providerReportService.getMonthlyFlows(from, from.plusMonths(ProviderReportService.MAX_MONTHS - 1)));
+        assertThrows(ValidationException.class,
+                () -> providerReportService.getMonthlyFlows(from, from.plusMonths(ProviderReportService.MAX_MONTHS)));
+        verify(statsRepository).findMonthlyFlows(any(), any());
+    }
+
+    private static ProviderDailyStatsRepository.ActiveCount activeCount(LocalDate date, String provider, int active) {
+        ProviderDailyStatsRepository.ActiveCount count = mock(ProviderDailyStatsRepository.ActiveCount.class);
+        when(count.getDate()).thenReturn(date);
+        when(count.getProvider()).thenReturn(provider);
+        when(count.getActive()).thenReturn(active);
+        return count;
+    }
+
+    private static ProviderStatsDeltaRepository.PendingSpan pendingSpan(String provider, LocalDate startDate,
+                                                                        LocalDate endDate, long delta) {
+        ProviderStatsDeltaRepository.PendingSpan span = mock(ProviderStatsDeltaRepository.PendingSpan.class);
+        when(span.getProvider()).thenReturn(provider);
+        when(span.getStartDate()).thenReturn(startDate);
+        when(span.getEndDate()).thenReturn(endDate);
+        when(span.getDelta()).thenReturn(delta);
+        return span;
+    }
+}
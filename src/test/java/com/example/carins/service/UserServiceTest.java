@@ -3,6 +3,8 @@ package com.example.carins.service;
 import com.example.carins.exception.AuthenticationException;
 import com.example.carins.exception.UserAlreadyExistsException;
 import com.example.carins.model.User;
+import com.example.carins.repo.OwnerRepository;
+import com.example.carins.repo.UserIdentity;
 import com.example.carins.repo.UserRepository;
 import com.example.carins.web.dto.LoginDto;
 import com.example.carins.web.dto.RegisterDto;
@@ -11,18 +13,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +38,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private OwnerRepository ownerRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -41,45 +50,80 @@ class UserServiceTest {
     @Mock
     private Authentication authentication;
 
+    private UniquenessFilter uniquenessFilter;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, passwordEncoder, authenticationManager);
+        uniquenessFilter = new UniquenessFilter(userRepository, ownerRepository, 1_000, 0.01);
+        userService = new UserService(userRepository, passwordEncoder, authenticationManager, uniquenessFilter);
     }
 
 
     @Test
     void register_ValidUser_Success() {
         RegisterDto registerDto = new RegisterDto("testuser", "password123", "test@example.com");
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.findIdentitiesByUsernameOrEmail("testuser", "test@example.com")).thenReturn(List.of());
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
 
         User savedUser = new User("testuser", "encodedPassword", "test@example.com", User.Role.USER);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
 
         User result = userService.register(registerDto);
 
         assertEquals("testuser", result.getUsername());
         assertEquals("test@example.com", result.getEmail());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void register_PrefilterClearsNewUser_SkipsLookup() {
+        when(userRepository.streamAllIdentities())
+                .thenReturn(Stream.of(new UserIdentity("existinguser", "existing@example.com")));
+        when(ownerRepository.streamAllEmails()).thenReturn(Stream.empty());
+        uniquenessFilter.load();
+
+        RegisterDto registerDto = new RegisterDto("newuser", "password123", "new@example.com");
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        User savedUser = new User("newuser", "encodedPassword", "new@example.com", User.Role.USER);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
+
+        userService.register(registerDto);
+
+        verify(userRepository, never()).findIdentitiesByUsernameOrEmail(anyString(), anyString());
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
     void register_UsernameExists_ThrowsException() {
         RegisterDto registerDto = new RegisterDto("existinguser", "password123", "test@example.com");
-        when(userRepository.existsByUsername("existinguser")).thenReturn(true);
+        when(userRepository.findIdentitiesByUsernameOrEmail("existinguser", "test@example.com"))
+                .thenReturn(List.of(new UserIdentity("existinguser", "other@example.com")));
 
-        assertThrows(UserAlreadyExistsException.class,
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
                 () -> userService.register(registerDto));
+        assertEquals("Username already exists: existinguser", exception.getMessage());
     }
 
     @Test
     void register_EmailExists_ThrowsException() {
         RegisterDto registerDto = new RegisterDto("testuser", "password123", "existing@example.com");
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
+        when(userRepository.findIdentitiesByUsernameOrEmail("testuser", "existing@example.com"))
+                .thenReturn(List.of(new UserIdentity("someoneelse", "existing@example.com")));
+
+        UserAlreadyExistsException exception = assertThrows(UserAlreadyExistsException.class,
+                () -> userService.register(registerDto));
+        assertEquals("Email already exists: existing@example.com", exception.getMessage());
+    }
+
+    @Test
+    void register_UniqueConstraintViolation_ThrowsException() {
+        RegisterDto registerDto = new RegisterDto("testuser", "password123", "test@example.com");
+        when(userRepository.findIdentitiesByUsernameOrEmail("testuser", "test@example.com")).thenReturn(List.of());
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
 
         assertThrows(UserAlreadyExistsException.class,
                 () -> userService.register(registerDto));
@@ -0,0 +1,44 @@
+package com.example.carins.support;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Performs a request and fails if it issued more SQL statements than its budget. Inside a test transaction,
+ * pending changes are flushed and the persistence context cleared first, so the request cannot be served from
+ * entities the test itself created, and flushed afterwards, so writes are counted too. Without one there is
+ * nothing to flush and the request runs against committed data only.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    public static ResultActions perform(MockMvc mockMvc, EntityManager entityManager,
+                                        RequestBuilder request, int maxStatements) throws Exception {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (inTransaction) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        SqlStatementRecorder.clear();
+
+        ResultActions result = mockMvc.perform(request);
+        if (inTransaction) {
+            entityManager.flush();
+        }
+
+        List<String> statements = SqlStatementRecorder.statements();
+        assertTrue(statements.size() <= maxStatements,
+                () -> "Expected at most " + maxStatements + " statements but got " + statements.size()
+                        + ":\n" + String.join("\n", statements));
+        return result;
+    }
+}